@@ -0,0 +1,48 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import strategies.CentralPlanning;
+import collaboration.Agent;
+
+/**
+ * Orders for the whole population, computed from scratch every call as in
+ * the non-incremental central planner
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CentralPlanningBenchmark {
+
+	private CentralPlanning planner;
+
+	@Setup(Level.Trial)
+	public void prepare(Universe universe) {
+		planner = CentralPlanning.getSingletonInstance();
+	}
+
+	@Benchmark
+	public CentralPlanning centralPlanningCalc(Universe universe) {
+		planner.zeroAgentsOrders(universe.getRun().getAgents()
+				.getObjects(Agent.class));
+		planner.centralPlanningCalc(universe.getAgents(), universe.getTasks());
+		return planner;
+	}
+
+}
@@ -0,0 +1,36 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collaboration.Agents;
+
+/**
+ * Stochastic universal sampling over the whole population, the way
+ * AgentEvolve calls it at the end of a generation
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvolutionBenchmark {
+
+	@Benchmark
+	public Universe stochasticSampling(Universe universe) {
+		Agents.stochasticSampling(universe.getAgents());
+		return universe;
+	}
+
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import intelligence.TasksDiviner;
+import strategies.Strategy.TaskChoice;
+import tasks.HeterophylyExpBased;
+import tasks.HomophylyExpBased;
+import tasks.Preferential;
+import collaboration.Task;
+
+/**
+ * Choice of a task by a single agent, for every strategy which does not
+ * depend on the central planner
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskChoiceBenchmark {
+
+	@Benchmark
+	public Task homophyly(Universe universe) {
+		return new HomophylyExpBased(universe.getTasks().getTaskRegistry())
+				.concludeMath(universe.nextAgent());
+	}
+
+	@Benchmark
+	public Task heterophyly(Universe universe) {
+		return new HeterophylyExpBased(universe.getTasks().getTaskRegistry())
+				.concludeMath(universe.nextAgent());
+	}
+
+	@Benchmark
+	public Task preferential(Universe universe) {
+		return new Preferential(universe.getTasks().getTaskRegistry())
+				.concludeMath(universe.nextAgent());
+	}
+
+	@Benchmark
+	public Task random(Universe universe) {
+		return TasksDiviner.chooseTask(universe.nextAgent(), TaskChoice.RANDOM,
+				universe.getTasks().getTaskRegistry());
+	}
+
+}
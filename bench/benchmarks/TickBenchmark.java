@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collaboration.HeadlessRun;
+import collaboration.ParallelSteps;
+import collaboration.Preprocess;
+import collaboration.SimulationParameters;
+import collaboration.SimulationRun;
+import collaboration.SweepRunner;
+
+/**
+ * One tick of a complete headless run - the real workload and agent
+ * profiles, scenario defaults with the number of agents and tasks given. A
+ * run which ends during measurement is built again before the next call,
+ * outside of the measured time.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TickBenchmark {
+
+	@Param({ "50", "120" })
+	public String agentCount;
+
+	@Param({ "50" })
+	public String numTasks;
+
+	@Param({ "homophyly", "preferential", "random", "central" })
+	public String taskChoiceAlgorithm;
+
+	@Param("1")
+	public int seed;
+
+	private HeadlessRun run;
+	private SimulationRun previous;
+
+	@Setup(Level.Trial)
+	public void prepare() throws Exception {
+		Map<String, Object> values = SweepRunner.readDefaults();
+		values.put("agentCount", agentCount);
+		values.put("numTasks", numTasks);
+		values.put("taskChoiceAlgorithm", taskChoiceAlgorithm);
+		values.put("randomSeed", seed);
+		SimulationParameters.init(values);
+	}
+
+	@Setup(Level.Iteration)
+	public void start() {
+		run = new HeadlessRun(1, seed, 0);
+		previous = run.bind();
+		run.start();
+	}
+
+	/**
+	 * A tick takes milliseconds, hence the overhead of an invocation level
+	 * fixture is negligible
+	 */
+	@Setup(Level.Invocation)
+	public void restartEnded() {
+		if (!run.hasNextTick()) {
+			finish();
+			start();
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void finish() {
+		Preprocess.clearStaticHeap();
+		SimulationRun.restore(previous);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		ParallelSteps.shutdown();
+	}
+
+	@Benchmark
+	public double tick() {
+		run.nextTick();
+		return run.getTick();
+	}
+
+}
@@ -0,0 +1,216 @@
+package benchmarks;
+
+import github.AgentModeling;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import load.ParametersDivider;
+import load.SigmoidParameter;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import repast.simphony.context.DefaultContext;
+import strategies.Strategy;
+import strategies.Strategy.SkillChoice;
+import strategies.Strategy.TaskChoice;
+import au.com.bytecode.opencsv.CSVWriter;
+import collaboration.Agent;
+import collaboration.HeadlessRun;
+import collaboration.Preprocess;
+import collaboration.SimulationAdvancedParameters;
+import collaboration.SimulationParameters;
+import collaboration.SimulationRun;
+import collaboration.SigmoidCurve;
+import collaboration.Skill;
+import collaboration.Skills;
+import collaboration.SweepRunner;
+import collaboration.Task;
+import collaboration.TaskInternals;
+import collaboration.Tasks;
+import collaboration.WorkUnit;
+
+/**
+ * Synthetic run of a given size - agents and tasks with random skills drawn
+ * from the real skill library, without the workload database. Agents are
+ * built from synthetic profiles written in the format of results.csv, thus
+ * they get their skills the same way as in a real run. Parameters are the
+ * defaults of the scenario.
+ * 
+ * The run is bound to the benchmark thread, hence the state has Thread
+ * scope. The same seed gives the same universe.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@State(Scope.Thread)
+public class Universe {
+
+	private static final int MAX_TASK_SKILLS = 3;
+	private static final int MAX_AGENT_SKILLS = 4;
+
+	@Param({ "50", "500", "5000" })
+	public int agents;
+
+	@Param({ "50", "5000", "50000" })
+	public int tasks;
+
+	@Param("1")
+	public int seed;
+
+	private HeadlessRun run;
+	private SimulationRun previous;
+	private Tasks pool;
+	private ArrayList<Agent> population;
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void build() throws Exception {
+		Map<String, Object> values = SweepRunner.readDefaults();
+		values.put("randomSeed", seed);
+		SimulationParameters.init(values);
+
+		run = new HeadlessRun(1, seed, 0);
+		previous = run.bind();
+		run.initRandom();
+		ParametersDivider.findMatch(1, SimulationParameters.sweepRuns);
+		if (SimulationAdvancedParameters.sigmoidLookupTable) {
+			SigmoidCurve.buildLookupTables(
+					SimulationAdvancedParameters.sigmoidTableResolution,
+					SigmoidParameter.INSTANCE.getChosen(),
+					SimulationAdvancedParameters.sigmoidTableTolerance);
+		}
+
+		Skills skills = new Skills();
+		run.setSkills(skills);
+		List<Skill> library = new ArrayList<Skill>(skills.getListSkills());
+		// the library is a set, order it for the sake of the seed
+		Collections.sort(library, new Comparator<Skill>() {
+			@Override
+			public int compare(Skill a, Skill b) {
+				return Integer.compare(a.getSkillId(), b.getSkillId());
+			}
+		});
+
+		Random random = new Random(seed);
+		pool = new Tasks(0);
+		run.setTasks(pool);
+		for (int i = 0; i < tasks; i++) {
+			Task task = new Task();
+			for (Skill skill : draw(library, 1 + random.nextInt(MAX_TASK_SKILLS),
+					random)) {
+				int required = 10 + random.nextInt(maxWork());
+				task.addSkill(skill.getName(), new TaskInternals(skill,
+						new WorkUnit(required), new WorkUnit(random
+								.nextInt(required)), task));
+			}
+			skills.addTaskInternals(task);
+			pool.add(task);
+		}
+
+		loadProfiles(library, random);
+		DefaultContext<Agent> context = new DefaultContext<Agent>("Agents");
+		run.setAgents(context);
+		population = new ArrayList<Agent>(agents);
+		TaskChoice[] taskChoices = TaskChoice.values();
+		SkillChoice[] skillChoices = SkillChoice.values();
+		for (int i = 0; i < agents; i++) {
+			Agent agent = new Agent("Synthetic", "Agent", "Agent_");
+			agent.setStrategy(new Strategy(taskChoices[i % taskChoices.length],
+					skillChoices[i % skillChoices.length]));
+			context.add(agent);
+			population.add(agent);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void clear() {
+		Preprocess.clearStaticHeap();
+		SimulationRun.restore(previous);
+	}
+
+	/**
+	 * One profile of random skills per agent, work done up to
+	 * lowestTop hence experience is spread over the whole (0, 1]
+	 */
+	private void loadProfiles(List<Skill> library, Random random)
+			throws IOException {
+		File file = File.createTempFile("profiles", ".csv");
+		try {
+			CSVWriter writer = new CSVWriter(new FileWriter(file), ';');
+			try {
+				for (int i = 0; i < agents; i++) {
+					for (Skill skill : draw(library,
+							1 + random.nextInt(MAX_AGENT_SKILLS), random)) {
+						writer.writeNext(new String[] {
+								String.valueOf(i),
+								"Agent_" + i,
+								skill.getName(),
+								String.valueOf(1 + random
+										.nextInt(SimulationAdvancedParameters.lowestTop)) });
+					}
+				}
+			} finally {
+				writer.close();
+			}
+			AgentModeling.instantiate(file.getPath());
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Upper bound of work required in a skill of a task, bigger for
+	 * benchmarks which must not run out of work
+	 */
+	protected int maxWork() {
+		return 1000;
+	}
+
+	private static List<Skill> draw(List<Skill> library, int count,
+			Random random) {
+		List<Skill> result = new ArrayList<Skill>(count);
+		while (result.size() < Math.min(count, library.size())) {
+			Skill skill = library.get(random.nextInt(library.size()));
+			if (!result.contains(skill)) {
+				result.add(skill);
+			}
+		}
+		return result;
+	}
+
+	public HeadlessRun getRun() {
+		return run;
+	}
+
+	public Tasks getTasks() {
+		return pool;
+	}
+
+	public ArrayList<Agent> getAgents() {
+		return population;
+	}
+
+	/**
+	 * Agents in turn, so that every benchmark call is made by another agent
+	 */
+	public Agent nextAgent() {
+		Agent agent = population.get(next);
+		next = (next + 1) % population.size();
+		return agent;
+	}
+
+}
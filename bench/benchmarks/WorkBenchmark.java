@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import strategies.Strategy.SkillChoice;
+import collaboration.Agent;
+import collaboration.Task;
+
+/**
+ * Work of an agent on a task, for every skill choice strategy. Tasks of
+ * this universe are never finished, hence the pool stays the same.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkBenchmark {
+
+	@State(Scope.Thread)
+	public static class Workload extends Universe {
+
+		@Override
+		protected int maxWork() {
+			return Integer.MAX_VALUE / 2;
+		}
+
+	}
+
+	@Param({ "PROPORTIONAL", "LEAST_WORK_LEFT", "GREATEST_EXPERIENCE",
+			"RANDOM" })
+	public SkillChoice skillChoice;
+
+	@Benchmark
+	public Boolean workOnTask(Workload universe) {
+		Agent agent = universe.nextAgent();
+		Task task = universe.getTasks().getRandomOpenTask(agent);
+		return task.workOnTask(agent, skillChoice);
+	}
+
+}
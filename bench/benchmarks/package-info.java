@@ -0,0 +1,22 @@
+/**
+ * JMH benchmarks of the simulation kernels, kept out of src so that the
+ * simulator builds without JMH. Jars of JMH (jmh-core,
+ * jmh-generator-annprocess, jopt-simple, commons-math3) go to lib_bench.
+ * 
+ * ant bench - runs all benchmarks, results are written as JSON to
+ * output/jmh-(commit).json, one file per commit
+ * ant bench -Dbench.args="TaskChoice -p agents=500 -p tasks=5000" - runs
+ * chosen benchmarks for chosen sizes, any JMH options can be given
+ * 
+ * Universe.java - synthetic run of a given number of agents and tasks
+ * TaskChoiceBenchmark.java - homophyly, heterophyly, preferential, random
+ * CentralPlanningBenchmark.java - orders for the whole population
+ * WorkBenchmark.java - Task.workOnTask() per skill choice
+ * EvolutionBenchmark.java - stochastic universal sampling
+ * TickBenchmark.java - one tick of a complete headless run
+ */
+/**
+ * @author Oskar Jarczyk
+ * @since 2.0
+ */
+package benchmarks;
@@ -0,0 +1,121 @@
+package argonauts;
+
+import java.util.Arrays;
+import java.util.List;
+
+import collaboration.Skill;
+
+/**
+ * Ring buffer with the most recent contributions of a single agent. Every
+ * entry is a tick, an identifier of a task and a bitmask of skills (indexed by
+ * Skill.getSkillId()) improved in that tick. Entries older than the retention
+ * are overwritten, and no Task objects are referenced, so depleted tasks can
+ * be garbage collected.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class JobHistory {
+
+	private static final int NONE = -1;
+
+	private final int[] ticks;
+	private final int[] taskIds;
+	private long[] skillMasks;
+	private int words;
+
+	/**
+	 * Position of the most recent entry
+	 */
+	private int head = NONE;
+	private int size = 0;
+
+	JobHistory(int retention) {
+		assert retention > 0;
+		this.ticks = new int[retention];
+		this.taskIds = new int[retention];
+		this.words = 1;
+		this.skillMasks = new long[retention];
+	}
+
+	/**
+	 * Records a contribution, a second contribution in the same tick
+	 * replaces the first one
+	 */
+	void add(int tick, int taskId, List<Skill> skills) {
+		int capacity = ticks.length;
+		if ((head == NONE) || (ticks[head] != tick)) {
+			head = (head + 1) % capacity;
+			if (size < capacity) {
+				size++;
+			}
+		}
+		ticks[head] = tick;
+		taskIds[head] = taskId;
+		int offset = head * words;
+		Arrays.fill(skillMasks, offset, offset + words, 0L);
+		for (Skill skill : skills) {
+			int id = skill.getSkillId();
+			ensureWords((id >>> 6) + 1);
+			offset = head * words;
+			skillMasks[offset + (id >>> 6)] |= 1L << id;
+		}
+	}
+
+	/**
+	 * @return true if a given skill was improved in a given tick, false also
+	 *         when that tick is already out of the retention
+	 */
+	boolean hasWorkedOn(int tick, Skill skill) {
+		int slot = slotOf(tick);
+		if (slot == NONE) {
+			return false;
+		}
+		int word = skill.getSkillId() >>> 6;
+		if (word >= words) {
+			return false;
+		}
+		return (skillMasks[slot * words + word] & (1L << skill.getSkillId())) != 0;
+	}
+
+	/**
+	 * @return identifier of a task worked on in a given tick or -1
+	 */
+	int getTaskId(int tick) {
+		int slot = slotOf(tick);
+		return slot == NONE ? NONE : taskIds[slot];
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int slotOf(int tick) {
+		int capacity = ticks.length;
+		for (int i = 0; i < size; i++) {
+			int slot = (head - i + capacity) % capacity;
+			if (ticks[slot] == tick) {
+				return slot;
+			}
+			if (ticks[slot] < tick) {
+				break;
+			}
+		}
+		return NONE;
+	}
+
+	private void ensureWords(int required) {
+		if (required <= words) {
+			return;
+		}
+		long[] grown = new long[ticks.length * required];
+		for (int slot = 0; slot < ticks.length; slot++) {
+			System.arraycopy(skillMasks, slot * words, grown, slot * required,
+					words);
+		}
+		skillMasks = grown;
+		words = required;
+	}
+
+}
@@ -1,85 +1,162 @@
 package argonauts;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import repast.simphony.engine.environment.RunEnvironment;
+import logger.SimulationLogger;
 import collaboration.Agent;
+import collaboration.RunLocal;
+import collaboration.SimulationAdvancedParameters;
+import collaboration.SimulationRun;
 import collaboration.Skill;
 import collaboration.Task;
 
 /**
  * Persist history of job done by agents, for multiple purpose later.
  * 
+ * Only the last SimulationAdvancedParameters.jobHistoryRetention ticks are
+ * kept in memory for every agent, hence the memory use doesn't grow with
+ * the length of a run. When SimulationAdvancedParameters.jobHistorySpill is
+ * enabled, the full history is written to a CSV file of the run as well,
+ * job-history_(batch)_(run).csv in the working directory.
+ * 
  * @author Oskar Jarczyk
- * @version 1.3
+ * @version 3.0
  */
 public class PersistJobDone {
 
+	private static final String SPILL_PREFIX = "job-history_";
+
 	/**
-	 * <Ai.name : <iterationNu : Task>>
+	 * <Ai.name : JobHistory>
 	 * Agent nick - key
-	 * value - iteration number, Task
+	 * value - recent (tick, task id, skills) entries
 	 */
-	private static Map<String, Map<Integer, Task>> jobDone = 
-			new HashMap<String, Map<Integer, Task>>();
-	
-	private static Map<String, Map<Integer, List<Skill>>> skillImproved = 
-			new HashMap<String, Map<Integer, List<Skill> > >();
-	
+	private static final RunLocal<Map<String, JobHistory>> jobDone = 
+			new RunLocal<Map<String, JobHistory>>() {
+		@Override
+		protected Map<String, JobHistory> initialValue() {
+			return new HashMap<String, JobHistory>();
+		}
+	};
+
+	private static final RunLocal<BufferedWriter> spill = new RunLocal<BufferedWriter>();
+	/**
+	 * File of the run was created already, if it is opened again (work
+	 * reported after close()) it is appended to
+	 */
+	private static final RunLocal<Boolean> spillCreated = new RunLocal<Boolean>();
+
 	public static void clear(){
-		jobDone.clear();
-		skillImproved.clear();
+		jobDone.get().clear();
+		close();
+		spillCreated.set(null);
 	}
 	
 	/**
 	 * Persisting information about a bit of work done on any task
 	 * to be used later by exp-based calculations and preferential
-	 * @param agentNick
-	 * Nick of agent (result of aget.getNick()) used to literally identity
-	 * agent by his nick
+	 * @param agent
+	 * Agent which was working, identified by his nick
 	 * @param task
 	 * Task object on which agent was working
+	 * @param skills
+	 * Skills improved during this bit of work
 	 */
 	public static void addContribution(Agent agent, Task task, List<Skill> skills){
 		String agentNick = agent.getNick();
 		
-		int iteration = (int) RunEnvironment.getInstance().
-				getCurrentSchedule().getTickCount();
+		int iteration = (int) SimulationRun.current().getTick();
 		
-		Map<Integer, Task> value = jobDone.get(agentNick);
+		JobHistory value = jobDone.get().get(agentNick);
 		if (value == null){
-			jobDone.put(agentNick, new HashMap<Integer, Task>());
-			value = jobDone.get(agentNick);
+			value = new JobHistory(SimulationAdvancedParameters.jobHistoryRetention);
+			jobDone.get().put(agentNick, value);
 		}
-		value.put(iteration, task);
-		jobDone.put(agentNick, value);
-		
-		Map<Integer, List<Skill>> valueS = skillImproved.get(agentNick);
-		if (valueS == null){
-			skillImproved.put(agentNick, new HashMap<Integer, List<Skill>>());
-			valueS = skillImproved.get(agentNick);
+		value.add(iteration, task.getId(), skills);
+
+		if (SimulationAdvancedParameters.jobHistorySpill){
+			spill(iteration, agentNick, task, skills);
 		}
-		valueS.put(iteration, skills);
-		skillImproved.put(agentNick, valueS);
+	}
 
+	/**
+	 * @return true if agent improved given skill in a given tick, ticks older
+	 *         than the retention always give false
+	 */
+	public static boolean hasWorkedOn(Agent agent, int tick, Skill skill){
+		JobHistory value = jobDone.get().get(agent.getNick());
+		return value != null && value.hasWorkedOn(tick, skill);
 	}
-	
-	public static Map<Integer, Task> getContributions(String agentNick) {
-		return jobDone.get(agentNick);
+
+	/**
+	 * @return identifier of a task agent was working on in a given tick, or -1
+	 *         if there is no such task in the retained history
+	 */
+	public static int getTaskWorkedOn(Agent agent, int tick){
+		JobHistory value = jobDone.get().get(agent.getNick());
+		return value == null ? -1 : value.getTaskId(tick);
 	}
-	
-	public static Map<Integer, List<Skill>> getSkillsWorkedOn(Agent agent){
-		return skillImproved.get(agent.getNick());
+
+	/**
+	 * @return true if agent contributed to any task since start of the run
+	 */
+	public static boolean wasWorking(Agent agent){
+		JobHistory value = jobDone.get().get(agent.getNick());
+		return value != null && !value.isEmpty();
 	}
 
-	public static Map<String, Map<Integer, Task>> getJobDone() {
-		return jobDone;
+	private static void spill(int iteration, String agentNick, Task task,
+			List<Skill> skills){
+		try {
+			BufferedWriter writer = spill.get();
+			if (writer == null){
+				writer = new BufferedWriter(new FileWriter(getSpillFilename(),
+						spillCreated.get() != null));
+				spill.set(writer);
+				spillCreated.set(Boolean.TRUE);
+			}
+			StringBuilder line = new StringBuilder();
+			line.append(iteration).append(';').append(agentNick).append(';')
+					.append(task.getId()).append(';');
+			for (int i = 0; i < skills.size(); i++){
+				if (i > 0){
+					line.append(',');
+				}
+				line.append(skills.get(i).getName());
+			}
+			writer.write(line.toString());
+			writer.newLine();
+		} catch (IOException e) {
+			SimulationLogger.DATA.error("Error writing [job history] to "
+					+ getSpillFilename(), e);
+		}
+	}
+
+	private static String getSpillFilename(){
+		SimulationRun run = SimulationRun.current();
+		return SPILL_PREFIX + run.getBatchNumber() + "_" + run.getRunNumber()
+				+ ".csv";
 	}
 
-	public static void setJobDone(Map<String, Map<Integer, Task>> contributions) {
-		PersistJobDone.jobDone = contributions;
+	/**
+	 * Flushes and closes the full history file, if it was opened
+	 */
+	public static void close(){
+		BufferedWriter writer = spill.get();
+		if (writer == null){
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException e) {
+			SimulationLogger.DATA.error("Error closing [job history] file", e);
+		}
+		spill.set(null);
 	}
 
 }
@@ -1,6 +1,7 @@
 package argonauts;
 
 import collaboration.Agent;
+import collaboration.RunLocal;
 import collaboration.Task;
 import collaboration.TaskInternals;
 
@@ -9,14 +10,20 @@ import java.util.Map;
 
 public class PersistRewiring {
 	
-	private static Map<Agent, GranulatedChoice> currentTask = 
-			new HashMap<Agent, GranulatedChoice>();
+	private static final RunLocal<Map<Agent, GranulatedChoice>> choices = 
+			new RunLocal<Map<Agent, GranulatedChoice>>() {
+		@Override
+		protected Map<Agent, GranulatedChoice> initialValue() {
+			return new HashMap<Agent, GranulatedChoice>();
+		}
+	};
 	
 	public static void clear(){
-		currentTask.clear();
+		choices.get().clear();
 	}
 	
 	public static void setOccupation(Agent agent, Task task, TaskInternals taskInternals){
+		Map<Agent, GranulatedChoice> currentTask = choices.get();
 		GranulatedChoice existing = currentTask.get(agent);
 		
 		if (existing == null){
@@ -29,6 +36,7 @@ public class PersistRewiring {
 	}
 	
 	public static void setOccupation(Agent agent, Task task){
+		Map<Agent, GranulatedChoice> currentTask = choices.get();
 		GranulatedChoice existing = currentTask.get(agent);
 		
 		if (existing == null){
@@ -41,11 +49,11 @@ public class PersistRewiring {
 	}
 	
 	public static Task getTask(Agent agent) {
-		return currentTask.get(agent).getTaskChosen();
+		return choices.get().get(agent).getTaskChosen();
 	}
 	
 	public static TaskInternals getTaskInternals(Agent agent) {
-		return currentTask.get(agent).getSkillChosen();
+		return choices.get().get(agent).getSkillChosen();
 	}
 	
 	/**
@@ -54,7 +62,7 @@ public class PersistRewiring {
 	 * @return Granulated choice (last Task and Skill worked on)
 	 */
 	public static GranulatedChoice getGranulatedChoice(Agent agent) {
-		return currentTask.get(agent);
+		return choices.get().get(agent);
 	}
 
 }
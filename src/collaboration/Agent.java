@@ -7,20 +7,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 import load.FunctionSet;
 import load.GranularityOption;
+import logger.Metrics;
+import logger.SimulationLogger;
 import repast.simphony.annotate.AgentAnnot;
-import repast.simphony.context.Context;
 import repast.simphony.context.space.graph.NodeCreator;
-import repast.simphony.engine.schedule.ScheduledMethod;
-import repast.simphony.random.RandomHelper;
 import repast.simphony.ui.probe.ProbeID;
-import repast.simphony.util.ContextUtils;
 import strategies.Strategy;
 import strategies.Strategy.SkillChoice;
 import strategies.Strategy.TaskChoice;
 import tasks.CentralAssignmentOrders;
+import utils.RandomStreams;
 import argonauts.GranulatedChoice;
 import argonauts.PersistJobDone;
 import argonauts.PersistRewiring;
@@ -45,26 +45,29 @@ public class Agent implements NodeCreator<Agent> {
 	 * @field serialVersionUID
 	 */
 	public static final long serialVersionUID = 42L;
-	private static GameController gameController;
-	public static int totalAgents = 0;
 
 	private AgentSkills agentSkills;
 	private Strategy strategy;
 
-	private final int id = ++totalAgents;
+	private final int id = SimulationRun.current().nextAgentId();
 	private String firstName;
 	private String lastName;
 	private String nick;
 
 	private CentralAssignmentOrders centralAssignmentOrders;
 
+	/**
+	 * Agent's own random stream, used only when agents step in parallel
+	 */
+	private Random random;
+
 	public Agent() {
 		this("Undefined name", "Undefined", "Agent_");
 	}
 
 	public Agent(String firstName, String lastName, String nick) {
 		this.agentSkills = new AgentSkills();
-		System.out.println("[Agent] constructor called");
+		SimulationLogger.AGENT.debug("[Agent] constructor called");
 		AgentModeling.fillWithSkills(this);
 		this.firstName = firstName;
 		this.lastName = lastName;
@@ -72,15 +75,6 @@ public class Agent implements NodeCreator<Agent> {
 		this.agentSkills.backup();
 	}
 
-	@SuppressWarnings("unchecked")
-	public GameController initGameController() {
-		Context<Agent> context = ContextUtils.getContext(this);
-		Context<Object> parentContext = ContextUtils.getParentContext(context);
-		gameController = (GameController) parentContext.getObjects(
-				GameController.class).get(0);
-		return gameController;
-	}
-
 	public Double getUtility() {
 		if (FunctionSet.INSTANCE.getChosen().equals(UtilityType.NormalizedSum)) {
 			return getNormalizedSumUtility();
@@ -92,15 +86,15 @@ public class Agent implements NodeCreator<Agent> {
 	}
 
 	public Double getNormalizedSumUtility() {
-		return Utility.getNormalizedSum(getAgentInternals());
+		return Utility.getNormalizedSum(agentSkills);
 	}
 	
 	public Double getBestSkillUtility() {
-		return Utility.getBestSkill(getAgentInternals());
+		return Utility.getBestSkill(agentSkills);
 	}
 	
 	public Double getWorstSkillUtility() {
-		return Utility.getWorstSkill(getAgentInternals());
+		return Utility.getWorstSkill(agentSkills);
 	}
 
 	public String getDecimalFormatUtility() {
@@ -108,16 +102,16 @@ public class Agent implements NodeCreator<Agent> {
 	}
 
 	public void mutate() {
-		// 1% chances for deleting (abandoning) skill
-		if (RandomHelper.nextDoubleFromTo(0, 1) <= 0.01) {
+		// by default 1% chances for deleting (abandoning) skill
+		if (RandomStreams.nextDoubleFromTo(this, 0, 1) <= SimulationAdvancedParameters.skillAbandonRate) {
 			Object[] allSkills = agentSkills.getSkills().keySet().toArray();
-			agentSkills.removeSkill((String) allSkills[RandomHelper
-					.nextIntFromTo(0, allSkills.length - 1)]);
+			agentSkills.removeSkill((String) allSkills[RandomStreams
+					.nextIntFromTo(this, 0, allSkills.length - 1)]);
 		}
 	}
 
 	public void addSkill(String key, AgentInternals agentInternals) {
-		getCurrentSkills().put(key, agentInternals);
+		agentSkills.addSkill(key, agentInternals);
 	}
 
 	/**
@@ -130,7 +124,7 @@ public class Agent implements NodeCreator<Agent> {
 	 */
 	public void removeSkill(String key, boolean skipAssertion) {
 		assert skipAssertion ? true : getCurrentSkills().containsKey(key);
-		getCurrentSkills().remove(key);
+		agentSkills.removeSkill(key);
 	}
 
 	public void removeSkill(Skill key, boolean skipAssertion) {
@@ -148,10 +142,9 @@ public class Agent implements NodeCreator<Agent> {
 	public AgentInternals getAgentInternalsOrCreate(String key) {
 		AgentInternals result = null;
 		if (getCurrentSkills().get(key) == null) {
-			result = (new AgentInternals(((Skills) CollaborationBuilder.skills).getSkill(
-					key), new Experience(true)));
-			getCurrentSkills().put(key, result);
-			result = getCurrentSkills().get(key);
+			result = agentSkills.addSkill(key, new AgentInternals(
+					((Skills) SimulationRun.current().getSkills()).getSkill(key),
+					new Experience(true)));
 		} else {
 			result = getCurrentSkills().get(key);
 		}
@@ -191,8 +184,18 @@ public class Agent implements NodeCreator<Agent> {
 		this.lastName = lastName;
 	}
 
-	@ScheduledMethod(start = 1, interval = 1, priority = 100)
+	@Scheduled(start = 1, interval = 1, priority = 100)
 	public void step() {
+		if (ParallelSteps.isEnabled()) {
+			// whole population steps at once, see ParallelSteps
+			return;
+		}
+		long start = Metrics.start();
+		stepSerially();
+		Metrics.get().step(this.strategy.getTaskChoice()).recordSince(start);
+	}
+
+	private void stepSerially() {
 		/*System.out.println("Step(" + getTick() + ") of Agent " + this.id
 				+ " scheduled method launched.");*/
 
@@ -202,8 +205,8 @@ public class Agent implements NodeCreator<Agent> {
 
 			if (granulated != null) {
 				// randomize decision
-				double leavingCurrentChance = RandomHelper.nextDoubleFromTo(0,
-						100);
+				double leavingCurrentChance = RandomStreams.nextDoubleFromTo(
+						this, 0, 100);
 				if (leavingCurrentChance <= 75) {
 					/*System.out.println("Step(" + getTick() + ") of Agent " + this.id
 							+ " continuuing granularity");*/
@@ -223,8 +226,11 @@ public class Agent implements NodeCreator<Agent> {
 					}
 					// EnvironmentEquilibrium.setActivity(true);
 				} else {
-					System.out.println("Step(" + getTick() + ") of Agent " + this.id
-							+ " choosing new task for granulated choice");
+					if (SimulationLogger.AGENT.isDebug()) {
+						SimulationLogger.AGENT.debug("Step(" + getTick()
+								+ ") of Agent " + this.id
+								+ " choosing new task for granulated choice");
+					}
 					// chose new task for granulated choice !
 					Task taskToWork = Tasks.chooseTask(this,
 							this.strategy.getTaskChoice());
@@ -234,11 +240,13 @@ public class Agent implements NodeCreator<Agent> {
 					}
 				}
 			} else {
-				System.out.println("Step("
-						+ getTick()
-						+ ") of Agent "
-						+ this.id
-						+ " first run, chose new task and assign granulated choice");
+				if (SimulationLogger.AGENT.isDebug()) {
+					SimulationLogger.AGENT.debug("Step("
+							+ getTick()
+							+ ") of Agent "
+							+ this.id
+							+ " first run, chose new task and assign granulated choice");
+				}
 				// first run
 				// chose new task and assign granulated choice !
 				Task taskToWork = Tasks.chooseTask(this,
@@ -260,7 +268,67 @@ public class Agent implements NodeCreator<Agent> {
 		}
 	}
 
+	/**
+	 * Decide phase of a parallel tick, may run concurrently with other agents,
+	 * hence it only reads the task pool and uses agent's own random stream
+	 * 
+	 * @return AgentDecision - task choice to be applied by apply()
+	 */
+	AgentDecision decide() {
+		GranulatedChoice granulated = null;
+		boolean continueGranulated = false;
+		if (GranularityOption.INSTANCE.getChosen()) {
+			granulated = PersistRewiring.getGranulatedChoice(this);
+			if (granulated != null) {
+				continueGranulated = RandomStreams.nextDoubleFromTo(this, 0,
+						100) <= 75;
+			}
+		}
+		// agent continuing granulated work chooses in apply(), and only if
+		// there is no work left - the same as in step()
+		Task chosen = continueGranulated ? null : Tasks.chooseTaskConcurrently(
+				this, this.strategy.getTaskChoice());
+		return new AgentDecision(chosen, granulated, continueGranulated);
+	}
+
+	/**
+	 * Apply phase of a parallel tick, runs serially in a deterministic order.
+	 * Task chosen in the decide phase could have been finished by agents
+	 * applied earlier, then agent works on a random open task instead.
+	 * Agent continuing granulated work with no work left chooses a task here.
+	 */
+	void apply(AgentDecision decision) {
+		Task taskToWork = decision.getChosenTask();
+		if ((taskToWork != null) && taskToWork.isClosed()) {
+			taskToWork = null;
+		}
+		if (GranularityOption.INSTANCE.getChosen()) {
+			if (decision.isContinueGranulated()) {
+				Boolean workDone = decision.getGranulated().getTaskChosen()
+						.workOnTaskFromContinuum(this, decision.getGranulated(),
+								this.strategy.skillChoice);
+				if (workDone) {
+					return;
+				}
+				taskToWork = Tasks.chooseTask(this,
+						this.strategy.getTaskChoice());
+			}
+			executeJob(taskToWork);
+			if (taskToWork != null) {
+				PersistRewiring.setOccupation(this, taskToWork);
+			}
+		} else {
+			executeJob(taskToWork);
+		}
+	}
+
 	private void executeJob(Task taskToWork) {
+		long start = Metrics.start();
+		workOn(taskToWork);
+		Metrics.get().work(this.strategy.getTaskChoice()).recordSince(start);
+	}
+
+	private void workOn(Task taskToWork) {
 		// This agent will work on task Task taskToWork
 		if ((taskToWork != null) && (taskToWork.getTaskInternals().size() > 0)) {
 
@@ -306,7 +374,7 @@ public class Agent implements NodeCreator<Agent> {
 	}
 
 	public void setNick(String nick) {
-		System.out.println("Agent's login set to: " + nick);
+		SimulationLogger.AGENT.debug("Agent's login set to: " + nick);
 		this.nick = nick;
 	}
 
@@ -315,7 +383,7 @@ public class Agent implements NodeCreator<Agent> {
 	}
 
 	public GameController getGameController() {
-		return gameController == null ? initGameController() : gameController;
+		return SimulationRun.current().getGameController();
 	}
 
 	public int getIteration() {
@@ -352,9 +420,10 @@ public class Agent implements NodeCreator<Agent> {
 
 	public void setCentralAssignmentOrders(
 			CentralAssignmentOrders centralAssignmentOrders) {
-		if (centralAssignmentOrders != null) {
-			System.out.println("Agent " + this.nick + " got an order to work on "
-					+ centralAssignmentOrders);
+		if ((centralAssignmentOrders != null)
+				&& SimulationLogger.AGENT.isDebug()) {
+			SimulationLogger.AGENT.debug("Agent " + this.nick
+					+ " got an order to work on " + centralAssignmentOrders);
 		}
 		this.centralAssignmentOrders = centralAssignmentOrders;
 	}
@@ -415,9 +484,9 @@ public class Agent implements NodeCreator<Agent> {
 			Boolean forceCreate) {
 		if (getCurrentSkills().get(skill.getName()) == null) {
 			if (forceCreate) {
-				AgentInternals result = (new AgentInternals(((Skills) CollaborationBuilder.skills).getSkill(skill.getName()),
+				agentSkills.addSkill(skill.getName(), new AgentInternals(
+						((Skills) SimulationRun.current().getSkills()).getSkill(skill.getName()),
 						new Experience(true)));
-				getCurrentSkills().put(skill.getName(), result);
 			} else {
 				if (unknownSkillIsZero) {
 					return 0d;
@@ -438,6 +507,13 @@ public class Agent implements NodeCreator<Agent> {
 		return agentSkills;
 	}
 
+	/**
+	 * @return identifiers of Agent's skills as a bit mask
+	 */
+	public SkillMask getSkillMask() {
+		return agentSkills.getMask();
+	}
+
 	public void setAgentSkills(AgentSkills agentSkills) {
 		this.agentSkills = agentSkills;
 	}
@@ -484,21 +560,26 @@ public class Agent implements NodeCreator<Agent> {
 		return createNode("Agent-" + getNick());
 	}
 
+	public Random getRandom() {
+		if (random == null) {
+			random = RandomStreams.create(this.id);
+		}
+		return random;
+	}
+
 	public boolean wasWorkingOnAnything() {
-		return PersistJobDone.getJobDone().containsKey(this.getNick());
+		return PersistJobDone.wasWorking(this);
 	}
 }
 
 class EnvironmentEquilibrium {
 
-	private static boolean activity = false;
-
-	public static synchronized boolean getActivity() {
-		return activity;
+	public static boolean getActivity() {
+		return SimulationRun.current().getActivity();
 	}
 
-	public static synchronized void setActivity(boolean defineActivity) {
-		activity = defineActivity;
+	public static void setActivity(boolean defineActivity) {
+		SimulationRun.current().setActivity(defineActivity);
 	}
 
 }
\ No newline at end of file
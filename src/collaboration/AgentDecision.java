@@ -0,0 +1,39 @@
+package collaboration;
+
+import argonauts.GranulatedChoice;
+
+/**
+ * Outcome of the decide phase of a parallel tick: task chosen by agent's task
+ * strategy and, with granularity enabled, whether agent wants to continue
+ * work on his previous choice. Applied later in a serial phase.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class AgentDecision {
+
+	private final Task chosenTask;
+	private final GranulatedChoice granulated;
+	private final boolean continueGranulated;
+
+	AgentDecision(Task chosenTask, GranulatedChoice granulated,
+			boolean continueGranulated) {
+		this.chosenTask = chosenTask;
+		this.granulated = granulated;
+		this.continueGranulated = continueGranulated;
+	}
+
+	Task getChosenTask() {
+		return chosenTask;
+	}
+
+	GranulatedChoice getGranulated() {
+		return granulated;
+	}
+
+	boolean isContinueGranulated() {
+		return continueGranulated;
+	}
+
+}
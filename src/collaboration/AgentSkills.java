@@ -1,75 +1,255 @@
 package collaboration;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /***
  * 
  * Represents Agent's skills (knowledge of programming language) and the initial
  * value as used later in evolutionary model
  * 
- * @version 2.0.8
+ * Experience is held in compact primitive vectors (skill id, plain experience,
+ * mastership level), one slot per skill possessed by the Agent. AgentInternals
+ * returned by this class are views over those vectors, thus resetting an Agent
+ * to its initial state is a plain array copy
+ * 
+ * @version 3.0
  * @author Oskar Jarczyk
  * 
  */
 public class AgentSkills {
 
-	private Map<String, AgentInternals> startSkills;
+	private static final int INITIAL_CAPACITY = 8;
+
+	private int[] ids;
+	private double[] values;
+	private int[] tops;
+	private AgentInternals[] views;
+	private int size;
+
+	private int[] startIds;
+	private double[] startValues;
+	private int[] startTops;
+	private AgentInternals[] startViews;
+	private int startSize;
+
+	/**
+	 * Incremented on every change of slots layout, lets views cache their slot
+	 */
+	private int layout;
+
 	private Map<String, AgentInternals> skills;
+	private Map<String, AgentInternals> skillsView;
+	private final SkillMask mask = new SkillMask();
 
 	public AgentSkills() {
-		startSkills = new HashMap<String, AgentInternals>();
+		ids = new int[INITIAL_CAPACITY];
+		values = new double[INITIAL_CAPACITY];
+		tops = new int[INITIAL_CAPACITY];
+		views = new AgentInternals[INITIAL_CAPACITY];
 		skills = new HashMap<String, AgentInternals>();
+		skillsView = Collections.unmodifiableMap(skills);
+		backup();
 	}
 
-	public Map<String, AgentInternals> getStartSkills() {
-		return startSkills;
-	}
-
-	public void setStartSkills(Map<String, AgentInternals> startSkills) {
-		this.startSkills = startSkills;
-	}
-
+	/**
+	 * Read-only view of the Agent's skills by Skill name, use
+	 * addSkill()/removeSkill() to modify them
+	 * 
+	 * @return Map<String, AgentInternals>
+	 */
 	public Map<String, AgentInternals> getSkills() {
-		return skills;
+		return skillsView;
 	}
 
-	public void setSkills(Map<String, AgentInternals> skills) {
-		this.skills = skills;
+	/**
+	 * Adds (or overwrites) a skill. Experience of given AgentInternals is
+	 * copied into the vectors and a view over them is stored under the key
+	 * 
+	 * @param key
+	 *            - name of the Skill
+	 * @param agentInternals
+	 *            - skill and experience to copy
+	 * @return AgentInternals - the view which is held by this AgentSkills
+	 */
+	public AgentInternals addSkill(String key, AgentInternals agentInternals) {
+		Skill skill = agentInternals.getSkill();
+		Experience experience = agentInternals.getExperience();
+		int slot = slotOf(skill.getSkillId());
+		if (slot < 0) {
+			ensureCapacity(size + 1);
+			slot = size++;
+			ids[slot] = skill.getSkillId();
+			views[slot] = new AgentInternals(skill, new VectorExperience(this,
+					skill.getSkillId()));
+			mask.set(skill.getSkillId());
+			layout++;
+		}
+		values[slot] = experience.getValue();
+		tops[slot] = (int) experience.getTop();
+		skills.put(key, views[slot]);
+		return views[slot];
 	}
 
 	public void removeSkill(String key) {
-		this.skills.remove(key);
+		AgentInternals removed = this.skills.remove(key);
+		if (removed == null) {
+			return;
+		}
+		int slot = slotOf(removed.getSkill().getSkillId());
+		mask.clear(removed.getSkill().getSkillId());
+		// views held elsewhere keep the last known experience
+		((VectorExperience) views[slot].getExperience()).detach(values[slot],
+				tops[slot]);
+		int last = --size;
+		ids[slot] = ids[last];
+		values[slot] = values[last];
+		tops[slot] = tops[last];
+		views[slot] = views[last];
+		views[last] = null;
+		layout++;
 	}
 
+	/**
+	 * Brings back the state saved by backup(), a System.arraycopy of the start
+	 * vectors
+	 */
 	public void reset() {
-		skills = deepCopy(startSkills);
+		ensureCapacity(startSize);
+		System.arraycopy(startIds, 0, ids, 0, startSize);
+		System.arraycopy(startValues, 0, values, 0, startSize);
+		System.arraycopy(startTops, 0, tops, 0, startSize);
+		System.arraycopy(startViews, 0, views, 0, startSize);
+		Arrays.fill(views, startSize, size > startSize ? size : startSize, null);
+		size = startSize;
+		layout++;
+		skills.clear();
+		mask.clear();
+		for (int i = 0; i < size; i++) {
+			skills.put(views[i].getSkill().getName(), views[i]);
+			mask.set(ids[i]);
+		}
 	}
 
 	public void backup() {
-		assert startSkills != null;
-		startSkills.clear();
-		for (Entry<String, AgentInternals> entry : skills.entrySet()) {
-			startSkills.put(entry.getKey(), entry.getValue().deepCopy());
+		startIds = Arrays.copyOf(ids, size);
+		startValues = Arrays.copyOf(values, size);
+		startTops = Arrays.copyOf(tops, size);
+		startViews = Arrays.copyOf(views, size);
+		startSize = size;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > ids.length) {
+			int newCapacity = Math.max(capacity, ids.length * 2);
+			ids = Arrays.copyOf(ids, newCapacity);
+			values = Arrays.copyOf(values, newCapacity);
+			tops = Arrays.copyOf(tops, newCapacity);
+			views = Arrays.copyOf(views, newCapacity);
 		}
 	}
 
-	private Map<String, AgentInternals> deepCopy(
-			Map<String, AgentInternals> source) {
-		Map<String, AgentInternals> result = new HashMap<String, AgentInternals>();
-		for (Entry<String, AgentInternals> entry : source.entrySet()) {
-			result.put(entry.getKey(), entry.getValue().deepCopy());
+	int slotOf(int skillId) {
+		for (int i = 0; i < size; i++) {
+			if (ids[i] == skillId) {
+				return i;
+			}
 		}
-		return result;
+		return -1;
+	}
+
+	/**
+	 * Identifiers of the skills possessed, kept in sync with addSkill() and
+	 * removeSkill()
+	 */
+	public SkillMask getMask() {
+		return mask;
+	}
+
+	/**
+	 * @return number which changes whenever a skill is added, removed or
+	 *         reset, experience changes don't count
+	 */
+	public int getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Plain experience vector, valid for slots [0; count())
+	 */
+	double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Mastership level vector, valid for slots [0; count())
+	 */
+	int[] getTops() {
+		return tops;
 	}
 
 	public double count() {
-		return this.skills.size();
+		return this.size;
 	}
 	
 	public boolean hasAny(){
 		return this.count() > 0;
 	}
 
+	/**
+	 * Experience which reads and writes the vectors of an AgentSkills, when
+	 * the skill is removed it keeps the last known value
+	 */
+	private static class VectorExperience extends Experience {
+
+		private final AgentSkills owner;
+		private final int skillId;
+		private int slot = -1;
+		private int slotLayout = -1;
+
+		VectorExperience(AgentSkills owner, int skillId) {
+			super();
+			this.owner = owner;
+			this.skillId = skillId;
+		}
+
+		private int slot() {
+			if (slotLayout != owner.getLayout()) {
+				slot = owner.slotOf(skillId);
+				slotLayout = owner.getLayout();
+			}
+			return slot;
+		}
+
+		void detach(double value, int top) {
+			super.setValue(value);
+			super.setTop(top);
+		}
+
+		@Override
+		public double getValue() {
+			int i = slot();
+			return i < 0 ? super.getValue() : owner.values[i];
+		}
+
+		@Override
+		public double getTop() {
+			int i = slot();
+			return i < 0 ? super.getTop() : owner.tops[i];
+		}
+
+		@Override
+		public void setValue(double value) {
+			int i = slot();
+			if (i < 0) {
+				super.setValue(value);
+			} else {
+				owner.values[i] = value;
+			}
+		}
+
+	}
+
 }
@@ -1,17 +1,17 @@
 package collaboration;
 
-import intelligence.AgentComparator;
-
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
+import logger.SimulationLogger;
 import repast.simphony.context.Context;
 import repast.simphony.context.DefaultContext;
-import repast.simphony.random.RandomHelper;
 import strategies.Strategy;
 import strategies.StrategyDistribution;
 import utils.NamesGenerator;
+import utils.RandomStreams;
 
 /***
  * Agents context, hence the contex.xml where Repast Simphony holds the context
@@ -47,21 +47,23 @@ public class Agents extends DefaultContext<Agent> {
 					.getInstance(strategyDistribution, i, agentCnt)
 					: new Strategy(strategyDistribution.getTaskStrategy(),
 							strategyDistribution.getSkillStrategy());
-			System.out.println("[Strategy] prepared for agent is: " + strategy.toString());
+			SimulationLogger.AGENT.debug("[Strategy] prepared for agent is: " + strategy);
 
 			agent.setStrategy(strategy);
-			System.out.println(agent.toString());
-			System.out.println("In add [agent] i: " + i);
+			if (SimulationLogger.AGENT.isDebug()) {
+				SimulationLogger.AGENT.debug("In add [agent] i: " + i + " "
+						+ agent.toString());
+			}
 			// Required adding agent to context
 
 			for (AgentInternals ai : agent.getAgentInternals()) {
 				assert ai.getExperience().getValue() > 0;
-				System.out.println("For a=" + agent.toString() + " delta is "
-						+ ai.getExperience().getDelta());
-				System.out.println("For a=" + agent.toString() + " value is "
-						+ ai.getExperience().getValue());
-				System.out.println("For a=" + agent.toString() + " top is "
-						+ ai.getExperience().getTop());
+				if (SimulationLogger.AGENT.isDebug()) {
+					SimulationLogger.AGENT.debug("For a=" + agent.toString()
+							+ " delta is " + ai.getExperience().getDelta()
+							+ " value is " + ai.getExperience().getValue()
+							+ " top is " + ai.getExperience().getTop());
+				}
 			}
 			context.add(agent);
 		}
@@ -84,36 +86,83 @@ public class Agents extends DefaultContext<Agent> {
 	public static void stochasticSampling(ArrayList<Agent> population) {
 		if (population.size() == 0)
 			return;
-		Collections.sort(population, new AgentComparator());
-		double min = population.get(population.size() - 1).getUtility();
-		double scaling = min < 0 ? ((-1) * min) : 0;
-		double maxRange = 0;
-		ArrayList<Double> ranges = new ArrayList<Double>();
-		ArrayList<Strategy> strategiesBackup = new ArrayList<Strategy>();
-
-		for (Agent p : population) {
-			maxRange += (p.getUtility() + scaling);
-			ranges.add(maxRange);
-			strategiesBackup.add(p.getStrategy().copy());
+		int n = population.size();
+		// utility is expensive, compute it once per agent instead of in
+		// every comparison of the sort
+		final double[] utilities = new double[n];
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			utilities[i] = population.get(i).getUtility();
+			order[i] = i;
 		}
-
-		double step = maxRange / population.size();
-		double start = RandomHelper.nextDoubleFromTo(0, 1) * step;
-		for (int i = 0; i < population.size(); i++) {
-			int selectedPlayer = population.size() - 1;
-			for (int j = 0; j < ranges.size(); j++) {
-				double pointer = start + i * step;
-				if (pointer < ranges.get(j)) {
-					selectedPlayer = j;
-					break;
-				}
+		// best agents first, stable as the sort with AgentComparator was
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(utilities[o2], utilities[o1]);
 			}
-			Agent nextAgent = population.get(i);
+		});
+		Agent[] sorted = new Agent[n];
+		double[] fitness = new double[n];
+		Strategy[] strategiesBackup = new Strategy[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = population.get(order[i]);
+			fitness[i] = utilities[order[i]];
+			strategiesBackup[i] = sorted[i].getStrategy().copy();
+		}
+
+		int[] selected = universalSampling(fitness,
+				RandomStreams.nextDoubleFromTo(0, 1));
+		for (int i = 0; i < n; i++) {
+			Agent nextAgent = sorted[i];
+			population.set(i, nextAgent);
 			nextAgent.getStrategy().copyStrategy(
-					strategiesBackup.get(selectedPlayer));
+					strategiesBackup[selected[i]]);
 
 			nextAgent.mutate();
 		}
 	}
 
+	/**
+	 * Selects fitness.length individuals with Stochastic Universal Sampling.
+	 * Fitness is shifted to be non-negative, cumulative ranges are built in
+	 * one pass and, as pointers grow, a single sweep over the ranges finds
+	 * all of them, O(n) in total.
+	 * 
+	 * @param fitness
+	 *            - fitness of individuals
+	 * @param offset
+	 *            - random number from [0, 1), position of the first pointer
+	 *            within the first step
+	 * @return index of the individual selected by every pointer
+	 */
+	public static int[] universalSampling(double[] fitness, double offset) {
+		int n = fitness.length;
+		double min = Double.POSITIVE_INFINITY;
+		for (double value : fitness) {
+			min = Math.min(min, value);
+		}
+		double scaling = min < 0 ? ((-1) * min) : 0;
+		double[] ranges = new double[n];
+		double maxRange = 0;
+		for (int i = 0; i < n; i++) {
+			maxRange += (fitness[i] + scaling);
+			ranges[i] = maxRange;
+		}
+
+		double step = maxRange / n;
+		double start = offset * step;
+		int[] selected = new int[n];
+		int j = 0;
+		for (int i = 0; i < n; i++) {
+			double pointer = start + i * step;
+			while (j < n && pointer >= ranges[j]) {
+				j++;
+			}
+			// rounding may push the last pointers behind the last range
+			selected[i] = j < n ? j : n - 1;
+		}
+		return selected;
+	}
+
 }
@@ -2,6 +2,8 @@ package collaboration;
 
 import java.io.Serializable;
 
+import logger.SimulationLogger;
+
 public class Category implements Serializable{
 
 	private static final long serialVersionUID = 3706760011333654857L;
@@ -10,12 +12,12 @@ public class Category implements Serializable{
 	private int hash;
 	
 	public Category(CategoryType type){
-		System.out.println("Category initialized with type: " + type);
+		SimulationLogger.SKILL.debug("Category initialized with type: " + type);
 		this.type = type;
 	}
 	
 	public Category(String name){
-		System.out.println("Category initialized with name: " + name);
+		SimulationLogger.SKILL.debug("Category initialized with name: " + name);
 		hash = name.hashCode();
 		this.type = parseType(name);
 	}
@@ -61,6 +61,26 @@ public class Experience {
 		}
 	}
 
+	/***
+	 * Same as getDelta() but for a plain (value, top) pair, used by the
+	 * primitive experience vectors in AgentSkills
+	 * 
+	 * @param value
+	 *            - plain experience
+	 * @param top
+	 *            - mastership level
+	 * @return double - sigmoid(value / top)
+	 */
+	public static double getDelta(double value, double top) {
+		double k = (value / top) > 1. ? 1. : (value / top);
+		if (ParametrizedSigmoidOption.INSTANCE.getChosen()) {
+			return SigmoidCurve.getCustomDelta(k,
+					SigmoidParameter.INSTANCE.getChosen());
+		} else {
+			return SigmoidCurve.getDelta(k);
+		}
+	}
+
 	/***
 	 * Decays experience by going back on sigmoid function Hence that despite
 	 * the fact that only double this.value is modified, it does changes the
@@ -72,15 +92,17 @@ public class Experience {
 	 * @return double - a new value of experience
 	 */
 	public void decay() {
-		double currentExperience = SigmoidCurve.getDelta(((this.value) / this.top));
+		double value = getValue();
+		double top = getTop();
+		double currentExperience = SigmoidCurve.getDelta((value / top));
 		if (currentExperience > stupidityLevel) {
-			double newValue = this.value - (this.value * decayLevel);
-			double newExpereince = SigmoidCurve.getDelta(newValue/this.top);
+			double newValue = value - (value * decayLevel);
+			double newExpereince = SigmoidCurve.getDelta(newValue / top);
 			if (newExpereince <= stupidityLevel) {
 				// never make less than 3%
-				this.value = stupidityLevel * this.top;
+				setValue(stupidityLevel * top);
 			} else {
-				this.value = newValue;
+				setValue(newValue);
 			}
 		}
 	}
@@ -98,13 +120,14 @@ public class Experience {
 //	}
 
 	public double getDelta(ApproximationMethod method) {
+		double k = getValue() / getTop();
 		switch (method) {
 			case SIGMOID:
-				return SigmoidCurve.getDelta((value / top) > 1. ? 1. : (value / top));
+				return SigmoidCurve.getDelta(k > 1. ? 1. : k);
 			case PARAMETRIZED_SIGMOID:
-				return SigmoidCurve.getCustomDelta((value / top) > 1. ? 1. : (value / top), learningParameter);
+				return SigmoidCurve.getCustomDelta(k > 1. ? 1. : k, learningParameter);
 			default:
-				return SigmoidCurve.getDelta((value / top) > 1. ? 1. : (value / top)); // use standard sigmoid
+				return SigmoidCurve.getDelta(k > 1. ? 1. : k); // use standard sigmoid
 		}
 	}
 
@@ -120,14 +143,18 @@ public class Experience {
 		this.value = value;
 	}
 
+	protected void setTop(int top) {
+		this.top = top;
+	}
+
 	public void increment(double how_much) {
-		this.value += how_much;
+		setValue(getValue() + how_much);
 	}
 	
 	public void incrementAbsolutly(double how_much) {
 		assert how_much >= 0.0;
 		assert how_much <= 1.0;
-		this.value += this.top * how_much;
+		setValue(getValue() + getTop() * how_much);
 	}
 
 }
\ No newline at end of file
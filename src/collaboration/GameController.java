@@ -6,10 +6,8 @@ import java.util.List;
 
 import load.AgentCount;
 import load.GenerationLength;
+import logger.SimulationLogger;
 import repast.simphony.context.Context;
-import repast.simphony.engine.environment.RunEnvironment;
-import repast.simphony.engine.schedule.ScheduledMethod;
-import repast.simphony.util.ContextUtils;
 import strategies.StrategyDistribution;
 import utils.AgentEvolve;
 import constants.Constraints;
@@ -59,8 +57,8 @@ public class GameController {
 		generationNumber = Constraints.generationNumber;
 		// how many generations we want to simulate
 		// mostly it is 10 generations in our batch files
-		System.out.println("generationNumber: " + generationNumber);
-		System.out.println("iterationNumber: " + iterationNumber);
+		SimulationLogger.CONTROLLER.info("generationNumber: " + generationNumber
+				+ " iterationNumber: " + iterationNumber);
 		this.strategyDistribution = strategyDistribution;
 	}
 
@@ -74,7 +72,7 @@ public class GameController {
 		return currentGeneration == 0;
 	}
 
-	@ScheduledMethod(start = 1.0, interval = 1.0, priority = -2000)
+	@Scheduled(start = 1.0, interval = 1.0, priority = -2000)
 	public void firstStep() {
 		// 1-generation scenarios don't need evolution
 		if (isFirstStage()) {
@@ -82,8 +80,8 @@ public class GameController {
 			// first generation and any other generations
 			// which you can find e.g. in hyip game or credibility game
 			if (currentIteration == (iterationNumber - 1)) {
-				System.out.println("counterIteration: " + currentIteration);
-				System.out.println("Execute generation end protocols");
+				SimulationLogger.CONTROLLER.info("counterIteration: " + currentIteration
+						+ ", execute generation end protocols");
 				// start evolution of Agents
 				AgentEvolve.evolve(this);
 				// reset experience state in Agents
@@ -103,32 +101,33 @@ public class GameController {
 	 */
 	private void resetAllAgents() {
 		List<Agent> allAgents = chooseAllAgents(this);
-		System.out.println("Resetting all Agents, all together " + allAgents.size()
-				+ " of them.");
+		SimulationLogger.CONTROLLER.debug("Resetting all Agents, all together "
+				+ allAgents.size() + " of them.");
 		for (Agent agent : allAgents) {
 			agent.resetMe();
 		}
 	}
 
-	@ScheduledMethod(start = 1.0, interval = 1.0, priority = -3000)
+	@Scheduled(start = 1.0, interval = 1.0, priority = -3000)
 	public void step() {
 		if (isFirstStage()) {
 			if (currentIteration == (iterationNumber - 2)) {
 				if (currentGeneration == (generationNumber - 1)) {
-					System.out.println("Waiting for an equilibrium already for "
+					SimulationLogger.CONTROLLER.info("Waiting for an equilibrium already for "
 							+ generationNumber + " generations");
 				}
 			}
 			if (currentIteration == (iterationNumber - 1)) {
-				System.out.println("[This is the last iteration in this generation]");
+				SimulationLogger.CONTROLLER.debug("[This is the last iteration in this generation]");
 				currentIteration = 0;
-				System.out.println("Current generation is: "
+				SimulationLogger.CONTROLLER.info("[Ending current generation] "
 						+ currentGeneration);
-				System.out.println("[Ending current generation]");
 				currentGeneration++;
 			} else {
-				System.out.println("Incrementing current iterationNumber to: "
-						+ (currentIteration + 1));
+				if (SimulationLogger.CONTROLLER.isDebug()) {
+					SimulationLogger.CONTROLLER.debug("Incrementing current iterationNumber to: "
+							+ (currentIteration + 1));
+				}
 				currentIteration++;
 			}
 		} else {
@@ -149,7 +148,7 @@ public class GameController {
 	}
 
 	public Double getCurrentTick() {
-		return RunEnvironment.getInstance().getCurrentSchedule().getTickCount();
+		return SimulationRun.current().getTick();
 	}
 	
 	public boolean isFirstStage(){
@@ -167,8 +166,7 @@ public class GameController {
 	 * @return
 	 */
 	public static ArrayList<Agent> chooseAllAgents(Object contextBeing) {
-		@SuppressWarnings("unchecked")
-		Context<Object> context = ContextUtils.getContext(contextBeing);
+		Context<Object> context = SimulationRun.current().getContext();
 		Iterable<Object> it = context.getObjects(Agent.class);
 		ArrayList<Agent> result = new ArrayList<Agent>();
 		Iterator<Object> iterator = it.iterator();
@@ -0,0 +1,252 @@
+package collaboration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import logger.SimulationLogger;
+import repast.simphony.context.DefaultContext;
+import utils.RandomStreams;
+
+/**
+ * A simulation run executed without the Repast engine, many of them can run
+ * in a single JVM at the same time (see SweepRunner). Parameters are expected
+ * to be loaded already with SimulationParameters.init(Map).
+ * 
+ * The schedule is emulated tick by tick: every tick it calls methods
+ * annotated with Scheduled of objects in the root context, agents and
+ * tasks, together with actions scheduled manually by Simulation. Actions of
+ * objects are kept up to date by ScheduledMembers as objects join and leave
+ * the contexts.
+ * Like in Repast, actions with higher priority go first and actions of the
+ * same priority are called in random order.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class HeadlessRun extends SimulationRun {
+
+	private static final Comparator<Action> HIGHER_PRIORITY_FIRST = new Comparator<Action>() {
+		@Override
+		public int compare(Action a, Action b) {
+			return Double.compare(b.priority, a.priority);
+		}
+	};
+
+	private final int runNumber;
+	private final int batchNumber;
+	private final long seed;
+	private final int stopAt;
+
+	private double tick = 0;
+	private volatile boolean ended = false;
+	/**
+	 * Manual actions first, then actions of members in order of joining
+	 */
+	private final Set<Action> actions = new LinkedHashSet<Action>();
+	private final List<Action> due = new ArrayList<Action>();
+
+	/**
+	 * @param stopAt
+	 *            safety limit of ticks, 0 means the run lasts until it ends
+	 *            itself
+	 */
+	public HeadlessRun(int runNumber, long seed, int stopAt) {
+		this(1, runNumber, seed, stopAt);
+	}
+
+	/**
+	 * Run of a given batch, for orchestrators which execute many batches
+	 */
+	public HeadlessRun(int batchNumber, int runNumber, long seed, int stopAt) {
+		this.batchNumber = batchNumber;
+		this.runNumber = runNumber;
+		this.seed = seed;
+		this.stopAt = stopAt;
+	}
+
+	/**
+	 * Builds the simulation and calls scheduled actions until the run ends
+	 */
+	public void execute() {
+		SimulationRun previous = bind();
+		try {
+			start();
+			while (nextTick()) {
+				// actions of the tick are called by nextTick()
+			}
+			if (!ended) {
+				SimulationLogger.BUILDER.warn("Run " + runNumber
+						+ " stopped after " + stopAt
+						+ " ticks without reaching its end");
+			}
+		} finally {
+			Preprocess.clearStaticHeap();
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Builds the simulation, the run has to be bound to the calling thread
+	 */
+	public void start() {
+		actions.clear();
+		new Simulation().build(new DefaultContext<Object>());
+		new ScheduledMembers<Action>(getContext(), getAgents(), getTasks()) {
+			@Override
+			protected Action schedule(Object member, Method method,
+					Scheduled annotation) {
+				Action action = new Action(annotation.start(),
+						annotation.interval(), annotation.priority(), member,
+						method);
+				actions.add(action);
+				return action;
+			}
+
+			@Override
+			protected void cancel(Action action) {
+				action.cancelled = true;
+				actions.remove(action);
+			}
+		}.watch();
+		tick = 0;
+	}
+
+	/**
+	 * Calls actions of the next tick, the run has to be bound to the calling
+	 * thread
+	 * 
+	 * @return false when the run has already ended or reached stopAt
+	 */
+	public boolean nextTick() {
+		if (!hasNextTick()) {
+			return false;
+		}
+		tick++;
+		due.clear();
+		for (Action action : actions) {
+			if (action.isDue(tick)) {
+				due.add(action);
+			}
+		}
+		// random order within the same priority, sort is stable
+		RandomStreams.shuffle(due);
+		Collections.sort(due, HIGHER_PRIORITY_FIRST);
+		for (Action action : due) {
+			// an earlier action of the tick may have removed the object
+			if (!action.cancelled) {
+				action.invoke();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return false when the run has already ended or reached stopAt
+	 */
+	public boolean hasNextTick() {
+		return !ended && (stopAt <= 0 || tick < stopAt);
+	}
+
+	@Override
+	public int getBatchNumber() {
+		return batchNumber;
+	}
+
+	@Override
+	public int getRunNumber() {
+		return runNumber;
+	}
+
+	@Override
+	public boolean isBatch() {
+		return true;
+	}
+
+	@Override
+	public double getTick() {
+		return tick;
+	}
+
+	@Override
+	public void endRun() {
+		ended = true;
+	}
+
+	@Override
+	public void schedule(double start, double interval, double priority,
+			Object target, String method) {
+		try {
+			actions.add(new Action(start, interval, priority, target, target
+					.getClass().getMethod(method)));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("No method " + method
+					+ " to schedule in " + target.getClass(), e);
+		}
+	}
+
+	/**
+	 * Parameters are shared by all runs of a sweep and loaded beforehand
+	 */
+	@Override
+	public void initParameters() {
+	}
+
+	@Override
+	public void initRandom() {
+		RandomStreams.init(SimulationAdvancedParameters.parallelAgentSteps,
+				(int) seed, new Random(seed));
+	}
+
+	private static class Action {
+
+		final double start;
+		final double interval;
+		final double priority;
+		final Object target;
+		final Method method;
+		boolean cancelled = false;
+
+		Action(double start, double interval, double priority, Object target,
+				Method method) {
+			this.start = start;
+			this.interval = interval;
+			this.priority = priority;
+			this.target = target;
+			this.method = method;
+		}
+
+		boolean isDue(double tick) {
+			if (tick < start) {
+				return false;
+			}
+			if (interval <= 0) {
+				return tick == start;
+			}
+			return (tick - start) % interval == 0;
+		}
+
+		void invoke() {
+			try {
+				method.invoke(target);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+
+	}
+
+}
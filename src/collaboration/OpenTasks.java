@@ -0,0 +1,84 @@
+package collaboration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import utils.RandomStreams;
+
+/***
+ * Set of open tasks (having TaskInternals and general advance below 1) in
+ * an array, a removed task is replaced by the last one, hence a uniformly
+ * random open task is a single draw.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class OpenTasks {
+
+	private Task[] tasks = new Task[16];
+	private int size = 0;
+	private final Map<Task, Integer> positions = new HashMap<Task, Integer>();
+
+	static boolean isOpen(Task task) {
+		return task.getTaskInternals().size() > 0
+				&& task.getGeneralAdvance() < 1.;
+	}
+
+	/**
+	 * Adds or removes the task depending on whether it is open now
+	 */
+	void update(Task task) {
+		if (isOpen(task)) {
+			add(task);
+		} else {
+			remove(task);
+		}
+	}
+
+	void add(Task task) {
+		if (positions.containsKey(task)) {
+			return;
+		}
+		if (size == tasks.length) {
+			tasks = Arrays.copyOf(tasks, size * 2);
+		}
+		tasks[size] = task;
+		positions.put(task, size++);
+	}
+
+	void remove(Task task) {
+		Integer position = positions.remove(task);
+		if (position == null) {
+			return;
+		}
+		Task last = tasks[--size];
+		tasks[size] = null;
+		if (last != task) {
+			tasks[position] = last;
+			positions.put(last, position);
+		}
+	}
+
+	/**
+	 * @return random open task drawn from the agent's stream, or null
+	 */
+	Task sample(Agent agent) {
+		if (size == 0) {
+			return null;
+		}
+		return tasks[RandomStreams.nextIntFromTo(agent, 0, size - 1)];
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		Arrays.fill(tasks, 0, size, null);
+		size = 0;
+		positions.clear();
+	}
+
+}
@@ -0,0 +1,178 @@
+package collaboration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import utils.RandomStreams;
+
+/**
+ * Steps all agents of a tick in two phases. In the decide phase agents
+ * choose their tasks concurrently, reading the pool of tasks which nobody
+ * modifies at that time. In the apply phase decisions are carried out one
+ * by one, in an order shuffled with a stream of the current tick, thus a run
+ * with the same randomSeed gives the same results regardless of threads.
+ * Decisions of the whole population are collected before any of them is
+ * applied, a tick is either stepped completely or fails.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class ParallelSteps {
+
+	private static ExecutorService executor;
+
+	public static boolean isEnabled() {
+		return SimulationAdvancedParameters.parallelAgentSteps;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			int threads = SimulationAdvancedParameters.parallelAgentThreads;
+			if (threads <= 0) {
+				threads = Runtime.getRuntime().availableProcessors();
+			}
+			executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						private int counter = 0;
+
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "agent-steps-"
+									+ (++counter));
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+		return executor;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             when an agent failed to decide or waiting was interrupted,
+	 *             no decision of the tick is applied then
+	 */
+	public static void step(Iterable<Agent> agents, Iterable<Task> tasks,
+			int tick) {
+		// advance is cached lazily, compute it before agents read it
+		for (Task task : tasks) {
+			task.getGeneralAdvance();
+		}
+		// rankings are updated lazily as well, agents only read them
+		Tasks pool = tasks instanceof Tasks ? (Tasks) tasks : null;
+		if (pool != null) {
+			pool.refreshRanking();
+		}
+
+		// worker threads act on behalf of the run of the calling thread
+		final SimulationRun run = SimulationRun.current();
+		List<Agent> population = new ArrayList<Agent>();
+		List<Callable<AgentDecision>> decisions = new ArrayList<Callable<AgentDecision>>();
+		for (final Agent agent : agents) {
+			population.add(agent);
+			decisions.add(new Callable<AgentDecision>() {
+				@Override
+				public AgentDecision call() {
+					SimulationRun previous = run.bind();
+					try {
+						return agent.decide();
+					} finally {
+						SimulationRun.restore(previous);
+					}
+				}
+			});
+		}
+
+		List<AgentDecision> decided = new ArrayList<AgentDecision>(
+				population.size());
+		if (pool != null) {
+			pool.setReadOnly(true);
+		}
+		try {
+			List<Future<AgentDecision>> futures = getExecutor().invokeAll(
+					decisions);
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					decided.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("Agent "
+							+ population.get(i).getId()
+							+ " failed to decide at tick " + tick, e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			// decisions are incomplete, the tick can't go on
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Parallel step interrupted at tick "
+					+ tick, e);
+		} finally {
+			if (pool != null) {
+				pool.setReadOnly(false);
+			}
+		}
+
+		List<Integer> order = new ArrayList<Integer>(population.size());
+		for (int i = 0; i < population.size(); i++) {
+			order.add(i);
+		}
+		Collections.shuffle(order, RandomStreams.create(-tick));
+
+		for (Integer i : order) {
+			population.get(i).apply(decided.get(i));
+		}
+	}
+
+	/**
+	 * Runs independent jobs on the pool on behalf of the run of the calling
+	 * thread and waits for all of them
+	 * 
+	 * @throws IllegalStateException
+	 *             when a job failed or waiting was interrupted
+	 */
+	public static void invokeAll(List<Runnable> jobs) {
+		final SimulationRun run = SimulationRun.current();
+		List<Callable<Object>> calls = new ArrayList<Callable<Object>>();
+		for (final Runnable job : jobs) {
+			calls.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					SimulationRun previous = run.bind();
+					try {
+						job.run();
+						return null;
+					} finally {
+						SimulationRun.restore(previous);
+					}
+				}
+			});
+		}
+		try {
+			for (Future<Object> future : getExecutor().invokeAll(calls)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			// results of the jobs are incomplete, callers can't go on
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for "
+					+ "parallel jobs", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	public static synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+}
@@ -1,7 +1,10 @@
 package collaboration;
 
 import github.AgentModeling;
+import github.MyDatabaseConnector;
 import intelligence.EquilibriumDetector;
+import logger.Metrics;
+import logger.SimulationLogger;
 import utils.NamesGenerator;
 import argonauts.PersistJobDone;
 import argonauts.PersistRewiring;
@@ -11,17 +14,20 @@ public enum Preprocess {
 	INSTANCE;
 	
 	public static void clearStaticHeap() {
-		System.out.println("Clearing [static data] from previous simulation");
-		System.out.println("Hence despite the fact there is a seperate JVM "
+		SimulationLogger.BUILDER.info("Clearing [static data] from previous simulation");
+		SimulationLogger.BUILDER.debug("Hence despite the fact there is a seperate JVM "
 				+ "for every instance, a new run need to reset static fields in classes");
 		PersistJobDone.clear();
 		PersistRewiring.clear();
 		NamesGenerator.clear();
 		Tasks.clearTasks();
-		Agent.totalAgents = 0;
 		AgentSkillsFrequency.clear();
 		AgentModeling.clear();
+		MyDatabaseConnector.close();
 		EquilibriumDetector.clear();
+		Metrics.close();
+		// remaining state of the run, identifiers start from 1 again
+		SimulationRun.current().clear();
 	}
 
 }
@@ -0,0 +1,120 @@
+package collaboration;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import repast.simphony.context.Context;
+import repast.simphony.engine.environment.RunEnvironment;
+import repast.simphony.engine.environment.RunState;
+import repast.simphony.engine.schedule.ISchedulableAction;
+import repast.simphony.engine.schedule.ISchedule;
+import repast.simphony.engine.schedule.ScheduleParameters;
+import repast.simphony.parameter.Parameters;
+import repast.simphony.random.RandomHelper;
+import utils.RandomStreams;
+
+/**
+ * Simulation run executed by Repast (GUI or batch) - ticks, ending and
+ * scheduling go to RunEnvironment and RunState, parameters come from the
+ * current Repast scenario. The only part of the model which needs Repast
+ * engine running, see CollaborationBuilder.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class RepastRun extends SimulationRun {
+
+	@Override
+	public int getBatchNumber() {
+		return RunState.getInstance().getRunInfo().getBatchNumber();
+	}
+
+	@Override
+	public int getRunNumber() {
+		return RunState.getInstance().getRunInfo().getRunNumber();
+	}
+
+	@Override
+	public boolean isBatch() {
+		return RunState.getInstance().getRunInfo().isBatch();
+	}
+
+	@Override
+	public double getTick() {
+		return RunEnvironment.getInstance().getCurrentSchedule()
+				.getTickCount();
+	}
+
+	@Override
+	public void endRun() {
+		RunEnvironment.getInstance().endRun();
+	}
+
+	@Override
+	public void schedule(double start, double interval, double priority,
+			Object target, String method) {
+		RunEnvironment
+				.getInstance()
+				.getCurrentSchedule()
+				.schedule(
+						ScheduleParameters.createRepeating(start, interval,
+								priority), target, method);
+	}
+
+	/**
+	 * Puts methods annotated with Scheduled of objects in the given contexts
+	 * on the Repast schedule, also of objects added later. Actions of an
+	 * object are removed when it leaves all of the contexts, like Repast does
+	 * with ScheduledMethod of context members.
+	 * 
+	 * @return number of objects with scheduled methods
+	 */
+	int scheduleMembers(Context<?>... contexts) {
+		final ISchedule schedule = RunEnvironment.getInstance()
+				.getCurrentSchedule();
+		ScheduledMembers<ISchedulableAction> members = new ScheduledMembers<ISchedulableAction>(
+				contexts) {
+			@Override
+			protected ISchedulableAction schedule(Object member,
+					Method method, Scheduled annotation) {
+				ScheduleParameters parameters = annotation.interval() > 0 ? ScheduleParameters
+						.createRepeating(annotation.start(),
+								annotation.interval(), annotation.priority())
+						: ScheduleParameters.createOneTime(annotation.start(),
+								annotation.priority());
+				return schedule.schedule(parameters, member, method.getName());
+			}
+
+			@Override
+			protected void cancel(ISchedulableAction action) {
+				schedule.removeAction(action);
+			}
+		};
+		members.watch();
+		return members.size();
+	}
+
+	/**
+	 * Loads parameters of the run, from the current Repast scenario
+	 */
+	@Override
+	public void initParameters() {
+		Parameters param = RunEnvironment.getInstance().getParameters();
+		Map<String, Object> values = new HashMap<String, Object>();
+		for (String name : SimulationParameters.NAMES) {
+			values.put(name, param.getValue(name));
+		}
+		SimulationParameters.init(values);
+	}
+
+	@Override
+	public void initRandom() {
+		RandomHelper.setSeed(SimulationParameters.randomSeed);
+		RandomHelper.init();
+		RandomStreams.init(SimulationAdvancedParameters.parallelAgentSteps,
+				SimulationParameters.randomSeed);
+	}
+
+}
@@ -0,0 +1,32 @@
+package collaboration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Static state which belongs to a single simulation run, the counterpart of
+ * ThreadLocal for SimulationRun. Every run sees its own value, created by
+ * initialValue() when the run reads it for the first time.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class RunLocal<T> {
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	final int index = counter.getAndIncrement();
+
+	protected T initialValue() {
+		return null;
+	}
+
+	public T get() {
+		return SimulationRun.current().getLocal(this);
+	}
+
+	public void set(T value) {
+		SimulationRun.current().setLocal(this, value);
+	}
+
+}
@@ -0,0 +1,37 @@
+package collaboration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public no-argument method of an object in the root context, agents
+ * or tasks to be called by the run. Kernel counterpart of Repast
+ * ScheduledMethod, read by HeadlessRun and by RepastRun which puts such
+ * methods on the Repast schedule. Actions with higher priority go first,
+ * actions of the same priority are called in random order.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Scheduled {
+
+	/**
+	 * Tick of the first call
+	 */
+	double start() default 1;
+
+	/**
+	 * Ticks between calls, 0 means a single call at start
+	 */
+	double interval() default 0;
+
+	double priority() default 0;
+
+}
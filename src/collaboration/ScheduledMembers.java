@@ -0,0 +1,105 @@
+package collaboration;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import repast.simphony.context.Context;
+import repast.simphony.context.ContextEvent;
+import repast.simphony.context.ContextListener;
+
+/**
+ * Scheduled actions of members of the contexts of a single run. Methods
+ * annotated with Scheduled of an object are scheduled once, when it joins
+ * one of the contexts, and cancelled when it leaves all of them, hence the
+ * engine never has to scan the contexts. Subclasses adapt it to the engine,
+ * see RepastRun and HeadlessRun.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+abstract class ScheduledMembers<A> {
+
+	private final Context<?>[] contexts;
+	private final Map<Object, List<A>> actions = new IdentityHashMap<Object, List<A>>();
+
+	ScheduledMembers(Context<?>... contexts) {
+		this.contexts = contexts;
+	}
+
+	/**
+	 * Schedules objects already in the contexts and listens for objects
+	 * added and removed later
+	 */
+	void watch() {
+		for (Context<?> context : contexts) {
+			if (context != null) {
+				watch(context);
+			}
+		}
+	}
+
+	/**
+	 * @return number of objects with scheduled methods
+	 */
+	int size() {
+		return actions.size();
+	}
+
+	protected abstract A schedule(Object member, Method method,
+			Scheduled annotation);
+
+	protected abstract void cancel(A action);
+
+	private <T> void watch(Context<T> context) {
+		for (T member : new ArrayList<T>(context)) {
+			add(member);
+		}
+		context.addContextListener(new ContextListener<T>() {
+			@Override
+			public void eventOccured(ContextEvent<T> ev) {
+				switch (ev.getType()) {
+				case AGENT_ADDED:
+					add(ev.getTarget());
+					break;
+				case AGENT_REMOVED:
+					remove(ev.getTarget());
+					break;
+				default:
+					break;
+				}
+			}
+		});
+	}
+
+	private void add(Object member) {
+		List<Method> methods = ScheduledMethods.of(member.getClass());
+		if (methods.isEmpty() || actions.containsKey(member)) {
+			return;
+		}
+		List<A> scheduled = new ArrayList<A>(methods.size());
+		for (Method method : methods) {
+			scheduled.add(schedule(member, method,
+					method.getAnnotation(Scheduled.class)));
+		}
+		actions.put(member, scheduled);
+	}
+
+	private void remove(Object member) {
+		for (Context<?> context : contexts) {
+			if (context != null && context.contains(member)) {
+				return;
+			}
+		}
+		List<A> scheduled = actions.remove(member);
+		if (scheduled != null) {
+			for (A action : scheduled) {
+				cancel(action);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+package collaboration;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Methods annotated with Scheduled, looked up once per class and shared by
+ * all runs in the JVM
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+final class ScheduledMethods {
+
+	private static final Map<Class<?>, List<Method>> byClass = new ConcurrentHashMap<Class<?>, List<Method>>();
+
+	private ScheduledMethods() {
+	}
+
+	/**
+	 * @return public no-argument methods of the class annotated with
+	 *         Scheduled, empty list when there are none
+	 */
+	static List<Method> of(Class<?> clazz) {
+		List<Method> methods = byClass.get(clazz);
+		if (methods == null) {
+			methods = new ArrayList<Method>();
+			for (Method method : clazz.getMethods()) {
+				if (method.isAnnotationPresent(Scheduled.class)
+						&& method.getParameterTypes().length == 0) {
+					methods.add(method);
+				}
+			}
+			methods = Collections.unmodifiableList(methods);
+			byClass.put(clazz, methods);
+		}
+		return methods;
+	}
+
+}
@@ -1,42 +1,59 @@
 package collaboration;
 
+import logger.SimulationLogger;
+
 /**
  * Learning Process represented by Sigmoid function
  * 
+ * The function can be evaluated exactly or, after buildLookupTables() was
+ * called at the start of a run, from precomputed tables with a linear
+ * interpolation between nodes. The domain is bounded to [0, 1], hence a table
+ * of a few thousand nodes is accurate to a fraction of a per mille. Tables
+ * belong to the current SimulationRun, runs executed side by side with
+ * different parameters never see each other's tables
+ * 
  * @author Oskar Jarczyk
  * @since 1.0
- * @version 1.4
+ * @version 3.0
  * 
  */
 public class SigmoidCurve {
 
 	private static final double limes = 6;
 
+	/**
+	 * Tables of the run, built once when the run starts and read-only after
+	 */
+	private static final RunLocal<Tables> tables = new RunLocal<Tables>();
+
 	// stackoverflow.com/questions/3599579/
 	// for-any-finite-floating-point-value-is-it-guaranteed-that-x-x-0
 	public static double getDelta(double k) {
-		double result = 0;
-		double base = 0;
 		if (k > 1) {
 			return 1.0;
 		}
-		
-		base = (-limes) + (k * (2 * limes));
-		result = 1d / (1d + Math.pow(Math.E, -base));
-
-		assert result >= 0.0;
-		assert result <= 1.0;
-
-		return result;
+		Tables current = tables.get();
+		if (current != null && k >= 0) {
+			return current.interpolate(current.standard, k);
+		}
+		return exactDelta(k, 1d);
 	}
 
 	public static double getCustomDelta(double k, double parameterD) {
-		double result = 0;
-		double base = 0;
 		if (k > 1) {
 			return 1.0;
 		}
-		
+		Tables current = tables.get();
+		if (current != null && k >= 0 && parameterD == current.customParameter) {
+			return current.interpolate(current.custom, k);
+		}
+		return exactDelta(k, parameterD);
+	}
+
+	private static double exactDelta(double k, double parameterD) {
+		double result = 0;
+		double base = 0;
+
 		base = (-limes) + (k * (2 * limes));
 		result = 1d / (1d + parameterD * Math.pow(Math.E, -base));
 
@@ -45,4 +62,104 @@ public class SigmoidCurve {
 
 		return result;
 	}
+
+	/**
+	 * Precomputes the standard sigmoid and the parametrized sigmoid (for the
+	 * given parameter d) in resolution + 1 equidistant nodes of [0, 1]. Tables
+	 * are accepted only when the largest error of the interpolation, checked
+	 * against the exact function between every two nodes, is within tolerance.
+	 * Tables are used by the run bound to the calling thread only
+	 * 
+	 * @param resolution
+	 *            - number of intervals in [0, 1]
+	 * @param parameterD
+	 *            - d parameter of the parametrized sigmoid
+	 * @param tolerance
+	 *            - maximum allowed absolute error
+	 * @return true if tables are in use, false if exact evaluation is used
+	 */
+	public static boolean buildLookupTables(int resolution, double parameterD,
+			double tolerance) {
+		assert resolution > 0;
+		clearLookupTables();
+		double[] standard = tabulate(resolution, 1d);
+		double[] custom = tabulate(resolution, parameterD);
+		double error = Math.max(measureError(standard, resolution, 1d),
+				measureError(custom, resolution, parameterD));
+		if (error > tolerance) {
+			SimulationLogger.BUILDER.warn("[Sigmoid lookup table] error " + error
+					+ " exceeds tolerance " + tolerance
+					+ ", using exact evaluation");
+			return false;
+		}
+		tables.set(new Tables(resolution, standard, custom, parameterD, error));
+		return true;
+	}
+
+	public static void clearLookupTables() {
+		tables.set(null);
+	}
+
+	public static boolean isTabulated() {
+		return tables.get() != null;
+	}
+
+	/**
+	 * @return largest absolute error of the interpolation found during the
+	 *         accuracy check of the tables in use
+	 */
+	public static double getTableError() {
+		Tables current = tables.get();
+		return current != null ? current.error : 0;
+	}
+
+	private static double[] tabulate(int resolution, double parameterD) {
+		double[] table = new double[resolution + 1];
+		for (int i = 0; i <= resolution; i++) {
+			table[i] = exactDelta(((double) i) / resolution, parameterD);
+		}
+		return table;
+	}
+
+	private static double measureError(double[] table, int resolution,
+			double parameterD) {
+		double error = 0;
+		for (int i = 0; i < resolution; i++) {
+			for (double fraction = 0.25; fraction < 1.; fraction += 0.25) {
+				double k = (i + fraction) / resolution;
+				double approximation = table[i] + (table[i + 1] - table[i])
+						* fraction;
+				error = Math.max(error,
+						Math.abs(approximation - exactDelta(k, parameterD)));
+			}
+		}
+		return error;
+	}
+
+	private static class Tables {
+
+		private final int resolution;
+		private final double[] standard;
+		private final double[] custom;
+		private final double customParameter;
+		private final double error;
+
+		private Tables(int resolution, double[] standard, double[] custom,
+				double customParameter, double error) {
+			this.resolution = resolution;
+			this.standard = standard;
+			this.custom = custom;
+			this.customParameter = customParameter;
+			this.error = error;
+		}
+
+		private double interpolate(double[] table, double k) {
+			double position = k * resolution;
+			int i = (int) position;
+			if (i >= resolution) {
+				return table[resolution];
+			}
+			return table[i] + (table[i + 1] - table[i]) * (position - i);
+		}
+	}
 }
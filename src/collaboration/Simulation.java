@@ -0,0 +1,531 @@
+package collaboration;
+
+import github.AgentModeling;
+import github.MyDatabaseConnector;
+import intelligence.EquilibriumDetector;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import load.AgentCount;
+import load.ExpDecayOption;
+import load.FunctionSet;
+import load.GenerationLength;
+import load.GranularityOption;
+import load.ParametersDivider;
+import load.ParametrizedSigmoidOption;
+import load.SigmoidParameter;
+import load.SkillStrategySet;
+import load.TaskCount;
+import load.TaskStrategySet;
+import logger.EndRunLogger;
+import logger.Metrics;
+import logger.SimulationLogger;
+
+import org.ini4j.InvalidFileFormatException;
+
+import repast.simphony.context.Context;
+import repast.simphony.util.collections.IndexedIterable;
+import strategies.CentralPlanning;
+import strategies.StrategyDistribution;
+import utils.ObjectsHelper;
+import argonauts.PersistJobDone;
+import constants.Constraints;
+
+/**
+ * Simulation kernel - builds contexts of a run (skills, tasks, agents, game
+ * controller) and holds actions which control the run every tick. It talks
+ * to the engine only through SimulationRun, hence the same model runs in
+ * Repast (CollaborationBuilder with RepastRun) and in the plain tick loop of
+ * HeadlessRun, e.g. embedded in a batch orchestrator.
+ * 
+ * @version 3.0
+ * @since 1.0
+ * @author Oskar Jarczyk
+ */
+public class Simulation {
+
+	private StrategyDistribution strategyDistribution;
+
+	private GameController gameController;
+	private SimulationRun run;
+	private CentralPlanning centralPlanner;
+
+	public Simulation() {
+		try {
+			initializeLoggers();
+			SimulationLogger.BUILDER.info("[Loggers] initialized...");
+		} catch (IOException e) {
+			SimulationLogger.BUILDER.error(Constraints.ERROR_INITIALIZING_PJIITLOGGER, e);
+		} catch (Exception exc) {
+			SimulationLogger.BUILDER.error(
+					Constraints.ERROR_INITIALIZING_PJIITLOGGER_AO_PARAMETERS, exc);
+		} finally {
+			SimulationLogger.BUILDER.debug("[Simulation constructor] finished execution");
+			// this is where Repast waits for scenario lunch
+			// (context builds up and build() method executes)
+		}
+	}
+
+	private void prepareDataControllers(Context<Object> context) throws InvalidFileFormatException,
+			IOException {
+		SimulationLogger.BUILDER.info(Constraints.LOADING_PARAMETERS);
+		run.initParameters();
+		// getting parameters of a simulation from current scenario
+
+		run.initRandom();
+		SimulationLogger.BUILDER.info("[Random generators] initialized...");
+
+		/***
+		 * StrategyDistribution holds information on currently tested Task
+		 * assignment strategy and Skill choice strategy Single distribution
+		 * means evolution disabled, while multiple distribution enables
+		 * evolutionary model
+		 */
+		strategyDistribution = new StrategyDistribution();
+		
+		Skills skills = new Skills();
+		run.setSkills(skills);
+		context.addSubContext(skills);
+	}
+
+	private void prepareWorkLoadData() {
+
+		/***
+		 * Learning curve is evaluated from lookup tables of this run, which
+		 * depend on the sigmoid parameter chosen for it
+		 */
+		if (SimulationAdvancedParameters.sigmoidLookupTable) {
+			SigmoidCurve.buildLookupTables(
+					SimulationAdvancedParameters.sigmoidTableResolution,
+					SigmoidParameter.INSTANCE.getChosen(),
+					SimulationAdvancedParameters.sigmoidTableTolerance);
+			SimulationLogger.BUILDER.info("[Sigmoid lookup table] built, max error "
+					+ SigmoidCurve.getTableError());
+		}
+
+		/***
+		 * This is new dataset parsed from our GitHub MongoDB database and
+		 * specially created for the sake of evolutionary model
+		 */
+		AgentModeling.instantiate();
+		SimulationLogger.BUILDER.info("[Sqlite engine] and resultset"
+				+ " initialized, may take some time..");
+		MyDatabaseConnector.init();
+
+		strategyDistribution.setType(SimulationParameters.evolutionEnabled);
+
+		if (strategyDistribution.isSingle()) {
+			strategyDistribution
+					.setSkillChoice(SkillStrategySet.INSTANCE.getChosenName());
+			strategyDistribution
+					.setTaskChoice(TaskStrategySet.INSTANCE.getChosenName());
+		} else if (strategyDistribution.isMultiple()) {
+			strategyDistribution
+					.setSkillChoice(SkillStrategySet.INSTANCE.getChosenName());
+			strategyDistribution
+					.setTaskChoiceSet(SimulationParameters.planNumber);
+		}
+	}
+
+	public void prepareGameController(Context<Object> context) {
+		if (SimulationParameters.evolutionEnabled < 1){
+			gameController = new GameController(strategyDistribution, true);
+		} else {
+			gameController = new GameController(strategyDistribution, false);
+			EquilibriumDetector.init();
+		}
+		run.setGameController(gameController);
+		context.add(gameController);
+	}
+
+	/**
+	 * Builds the simulation of the run bound to the calling thread in the
+	 * given root context. Actions of the run are either annotated with
+	 * Scheduled (this object, agents, game controller) or given to
+	 * SimulationRun.schedule().
+	 */
+	public Context<Object> build(Context<Object> context) {
+		run = SimulationRun.current();
+		Integer batchNumber = run.getBatchNumber();
+		Integer runNumber = run.getRunNumber();
+		SimulationLogger.configure(run.isBatch());
+		SimulationLogger.BUILDER
+				.info("Simulation is building [context], sweep run no: "
+						+ batchNumber
+						+ ","
+						+ runNumber
+						+ " is_batch: "
+						+ run.isBatch());
+
+		context.setId("emergent-task-allocation");
+
+		Preprocess.clearStaticHeap();
+		SimulationLogger.BUILDER.info("[Static heap] cleared..");
+		run.setContext(context);
+		Metrics.open(batchNumber, runNumber);
+
+		try {
+			// prepare e.g. skill factory
+			prepareDataControllers(context);
+			// divide set of parameters into subscenarios
+			ParametersDivider.findMatch(runNumber, SimulationParameters.sweepRuns);
+			// prepare sqlite and other factories
+			prepareWorkLoadData();
+		} catch (InvalidFileFormatException e) {
+			SimulationLogger.BUILDER.error(e.toString(), e);
+		} catch (IOException e) {
+			SimulationLogger.BUILDER.error(e.toString(), e);
+		}
+
+		Tasks tasks = new Tasks(TaskCount.INSTANCE.getChosen());
+		run.setTasks(tasks);
+		context.addSubContext(tasks);
+		Agents agents = new Agents(strategyDistribution,
+				AgentCount.INSTANCE.getChosen());
+		run.setAgents(agents);
+		context.addSubContext(agents);
+		
+		prepareGameController(context);
+
+		assert context.getObjects(GameController.class).size() > 0;
+		SimulationLogger.BUILDER.info("[Game Controller] initialized and added to context.");
+
+		SimulationLogger.BUILDER.info("Task choice [Strategy] is "
+						+ (strategyDistribution.isDistributionLoaded() ? strategyDistribution
+								.getStrategySet().describe()
+								: TaskStrategySet.INSTANCE.getChosenName()));
+		SimulationLogger.BUILDER.info("Number of [Tasks] created " + getTasks().size());
+		SimulationLogger.BUILDER.info("Number of [Agents] created " + getAgents().size());
+		SimulationLogger.BUILDER.info("[Algorithm] tested: "
+				+ (strategyDistribution.isDistributionLoaded() ? "Distributed"
+						: TaskStrategySet.INSTANCE.getChosenName()));
+
+		buildCentralPlanner();
+		buildContinousTaskFlow();
+		buildExperienceReassessment();
+		buildParallelSteps();
+		buildMetricsExport();
+
+		context.add(this); // it will make sure Scheduled methods are run
+
+		return context;
+	}
+
+	private IndexedIterable<Task> getTasks() {
+		Context<Task> context = run.getTasks();
+		return context.getObjects(Task.class);
+	}
+
+	public IndexedIterable<Agent> getAgents() {
+		Context<Agent> context = run.getAgents();
+		return context.getObjects(Agent.class);
+	}
+	
+	private IndexedIterable<Skill> getSkills() {
+		Context<Skill> context = run.getSkills();
+		return context.getObjects(Skill.class);
+	}
+
+	private void initializeLoggers() throws IOException {
+		EndRunLogger.init();
+		EndRunLogger.buildHeaders(buildFinalMessageHeader());
+	}
+
+	@Scheduled(start = 2, interval = 1, priority = SimulationRun.FIRST_PRIORITY)
+	/***
+	 * Because of a continuous work in an evolutionary model, we don't finish
+	 * simulation without a good reason. This method will be enabled but in
+	 * second part of the game - calculating efficiency of a static set of
+	 * strategies
+	 */
+	public void finishSimulation() {
+		//System.out.println("[finishSimulation() check launched] Checking if simulation can be ended...");
+		EnvironmentEquilibrium.setActivity(false);
+		if (gameController.isEvolutionary()) {
+			if (EquilibriumDetector.evaluate(gameController)) {
+				//System.out.println("[Stable set of Strategies] detected, finishing simulation");
+				EndRunLogger.finalMessage((buildFinalMessage()));
+				PersistJobDone.close();
+				Metrics.close();
+				run.endRun();
+				// cleanAfter();
+			}
+		} else if (((Tasks) run.getTasks()).getCount() < 1) {
+			//System.out.println("Count of [Task Pool] is < 1, finishing simulation");
+			EndRunLogger.finalMessage((buildFinalMessage()));
+			PersistJobDone.close();
+			Metrics.close();
+			run.endRun();
+			// cleanAfter();
+		}
+	}
+
+	@Scheduled(start = 1, interval = 1, priority = SimulationRun.LAST_PRIORITY)
+	/***
+	 * Because of a continuous work in an evolutionary model, we don't finish
+	 * simulation without a good reason. This method will be enabled but in
+	 * second part of the game - calculating efficiency of a static set of
+	 * strategies
+	 */
+	public void checkForActivity() {
+		//System.out.println("[checkForActivity() check launched] Checking if there was any work at all in current Tick");
+		if (EnvironmentEquilibrium.getActivity() == false) {
+			//System.out.println("EnvironmentEquilibrium.getActivity() returns false!");
+			EndRunLogger.finalMessage((buildFinalMessage()));
+			PersistJobDone.close();
+			Metrics.close();
+			run.endRun();
+			// cleanAfter();
+		}
+	}
+
+	private String buildFinalMessage() {
+		return run.getBatchNumber()
+				+ ","
+				+ run.getRunNumber()
+				+ ","
+				+ run.getTick()
+				+ ","
+				+ AgentCount.INSTANCE.getChosen()
+				+ ","
+				+ TaskCount.INSTANCE.getChosen()
+				+ ","
+				+ getTaskLeft()
+				+ ","
+				+ ExpDecayOption.INSTANCE.getChosen()
+				+ ","
+				+ GranularityOption.INSTANCE.getChosen()
+				+ ","
+				+ strategyDistribution.getTaskChoice()
+				+ ","
+				+ strategyDistribution.getSkillChoice()
+				+ ","
+				+ gameController.isEvolutionary()
+				+ ","
+				+ SimulationParameters.planNumber
+				+ ","
+				+ FunctionSet.INSTANCE.getChosen()
+				+ ","
+				+ gameController.getCurrentGeneration()
+				+ ","
+				+ GenerationLength.INSTANCE.getChosen()
+				+ ","
+				+ gameController
+						.countHomophilyDistribution(getCurrentContext())
+				+ ","
+				+ gameController
+						.countHeterophilyDistribution(getCurrentContext())
+				+ ","
+				+ gameController
+						.countPreferentialDistribution(getCurrentContext())
+				+ ","
+				+ ParametrizedSigmoidOption.INSTANCE.getChosen()
+				+ ","
+				+ SigmoidParameter.INSTANCE.getChosen();
+	}
+
+	private int getTaskLeft() {
+		Context<Object> context = getCurrentContext();
+		int left = 0;
+		for (Object task : context.getObjects(Task.class)) {
+			if (task.getClass().getName().equals("collaboration.Task")) {
+				if ((((Task) task).getTaskInternals().size() > 0)
+						&& (((Task) task).getGeneralAdvance() < 1.)) {
+					left++;
+				}
+			}
+		}
+		return left;
+	}
+
+	private String buildFinalMessageHeader() {
+		return "Batch_Number" + "," + "Run_Number" + "," + "Tick_Count" + ","
+				+ "Agents_Count" + "," + "Tasks_Count" + "," + "Tasks_Left"
+				+ "," + "Experience_Decay" + "," + "Allow_Skill_Death" + ","
+				+ "Exp_cut_point" + "," + "Granularity" + ","
+				+ "Granularity_type" + "," + "Granularity_obstinancy" + ","
+				+ "Task_choice_strategy" + "," + "Skill_choice_strategy" + ","
+				+ "Is_Evolutionary" + "," + "Plan_Number" + ","
+				+ "Utility_Type" + "," + "UtilityLeftValue" + ","
+				+ "Generation" + ","
+				+ "GenerationLength" + "," + "Allways_Choose_Task" + ","
+				+ "Homophily_Count" + "," + "Heterophily_Count" + ","
+				+ "Preferential_Count" + "Parametrized_Sigmoid" + "Sigmoid_Parameter";
+	}
+
+	/**
+	 * This is the method scheduled (if at least 1 agent uses central planner)
+	 * to execute every tick to make for giving orders, hence zeroing the orders
+	 * first (clearing previous orders) and than making the math
+	 */
+	public void centralPlanning() {
+		/*System.out.println("CentralPlanning scheduled method launched, listAgent.size(): "
+						+ getAgents().size()
+						+ " taskPool.size(): "
+						+ ((Tasks) tasks).getCount());*/
+		/*System.out.println("Zeroing agents' orders");*/
+		long start = Metrics.start();
+		if (SimulationAdvancedParameters.centralPlanningIncremental) {
+			centralPlanner.incrementalPlanningCalc(getAgents(), (Tasks) run.getTasks());
+		} else {
+			centralPlanner.zeroAgentsOrders(getAgents());
+			centralPlanner.centralPlanningCalc(getAgents(), (Tasks) run.getTasks());
+		}
+		Metrics.get().planning().recordSince(start);
+	}
+
+	/**
+	 * Here I need to schedule method manually because. In first version of
+	 * simulator the Central assignment strategy was non-evolutionary but now in
+	 * hybrid model it can take work for a subset of Agents as well.
+	 */
+	public void buildCentralPlanner() {
+		/*System.out.println("Method buildCentralPlanner lunched."
+				+ "Checking now if central planer is needed at all.");*/
+		if (strategyDistribution.isCentralPlannerEnabled()) {
+			/*System.out.println("Creating a central planner instance.");*/
+			centralPlanner = CentralPlanning.getSingletonInstance();
+			/*System.out.println("Central planner is initiating schedule.");*/
+			run.schedule(1, 1, SimulationRun.FIRST_PRIORITY, this,
+					"centralPlanning");
+			SimulationLogger.BUILDER.info("Central planner initiated and awaiting for call.");
+		}
+	}
+
+	public void buildContinousTaskFlow() {
+		if (gameController.isEvolutionary()) {
+			run.schedule(1, 1, SimulationRun.LAST_PRIORITY, this,
+					"provideSimulatorWithWork");
+			if (SimulationAdvancedParameters.taskFeedPrefetch) {
+				MyDatabaseConnector
+						.startPrefetch(SimulationAdvancedParameters.taskFeedCapacity);
+			}
+			SimulationLogger.BUILDER.info("[Continous Task Flow] initiated");
+		} else {
+			SimulationLogger.BUILDER.info("Task number is static, task flow builder skipped");
+		}
+	}
+
+	/***
+	 * In case of non-evolutionary simulation, launched once at start
+	 * Otherwise, method simply checks whether we should add more work
+	 * (new task) to the simulator or not
+	 */
+	public synchronized void provideSimulatorWithWork() {
+		Context<Task> tasks = run.getTasks();
+		if (tasks.size() < TaskCount.INSTANCE.getChosen()) {
+			int minus = TaskCount.INSTANCE.getChosen() - ((Tasks) tasks).getCount();
+			int difference = Math.abs(minus);
+			if (SimulationLogger.TASK.isDebug()) {
+				SimulationLogger.TASK.debug("Adding more " + difference
+						+ " [Tasks] to simulator, [Task feed] depth "
+						+ MyDatabaseConnector.getQueueDepth() + " stalled "
+						+ MyDatabaseConnector.getStallCount() + " times for "
+						+ MyDatabaseConnector.getStallTime() + " ms");
+			}
+			try {
+				List<Task> newTasks = MyDatabaseConnector.get(difference);
+				for (Task newTask : newTasks) {
+					tasks.add(newTask);
+				}
+			} catch (SQLException e) {
+				SimulationLogger.TASK.error(
+						"Error during providing simulator with a new [Task(s)]", e);
+			}
+		}
+	}
+
+	/***
+	 * Implemented skill - forgetting, which can be enabled through parameters a
+	 * scheduled method if set in the scenario parameters when needed, lunched
+	 * AgentInternalls.decayExperience()
+	 */
+	public synchronized void experienceReassess() {
+		try {
+			IndexedIterable<Agent> agentObjects = getAgents();
+			int tick = ObjectsHelper.fromDouble(gameController.getCurrentTick());
+			for (Agent agent : agentObjects) {
+				if (SimulationLogger.AGENT.isDebug()) {
+					SimulationLogger.AGENT.debug("Checking if I may have to [decrease exp] of "
+							+ agent);
+				}
+				if (!agent.getAgentSkills().hasAny()) {
+					continue;
+				}
+
+				// Use PersistJobDone to check work history
+				Collection<AgentInternals> aic = (agent).getAgentInternals();
+				CopyOnWriteArrayList<AgentInternals> aicconcurrent = 
+						new CopyOnWriteArrayList<AgentInternals>(
+						aic);
+				for (AgentInternals ai : aicconcurrent) {
+					if (PersistJobDone.hasWorkedOn(agent, tick, ai.getSkill())) {
+						// was working on a task, don't decay this skill
+					} else {
+						// decay this experience
+							ai.decayExperience();
+					}
+				}
+			}
+		} catch (Exception exc) {
+			SimulationLogger.AGENT.error(exc.toString(), exc);
+		} finally {
+			SimulationLogger.AGENT.debug("Regular method run for [expDecay] finished for this step.");
+		}
+	}
+
+	/**
+	 * Here I need to schedule method manually because I don't know if expDecay
+	 * is enabled for the simulation whether not.
+	 */
+	public void buildExperienceReassessment() {
+		SimulationLogger.BUILDER.debug("buildExperienceReassessment() lunched !");
+		if (ExpDecayOption.INSTANCE.getChosen()) {
+			SimulationLogger.BUILDER.info("[Exp decay] is enabled for this run");
+			run.schedule(1, 1, SimulationRun.LAST_PRIORITY, this,
+					"experienceReassess");
+			SimulationLogger.BUILDER.info("Experience decay initiated and awaiting for call !");
+		} else {
+			SimulationLogger.BUILDER.info("[Exp decay] is disabled for this run");
+		}
+	}
+
+	/**
+	 * Scheduled instead of Agent.step() when agents step in parallel
+	 */
+	public void parallelAgentSteps() {
+		ParallelSteps.step(getAgents(), run.getTasks(), (int) run.getTick());
+	}
+
+	public void buildParallelSteps() {
+		if (ParallelSteps.isEnabled()) {
+			run.schedule(1, 1, 100, this, "parallelAgentSteps");
+			SimulationLogger.BUILDER.info("[Parallel steps] of agents initiated");
+		}
+	}
+
+	/**
+	 * Writes metrics of the tick which just ended, see logger.Metrics
+	 */
+	public void exportMetrics() {
+		Metrics.writeTick();
+	}
+
+	public void buildMetricsExport() {
+		if (SimulationAdvancedParameters.metricsEnabled
+				&& SimulationAdvancedParameters.metricsCsv) {
+			run.schedule(1, 1, SimulationRun.LAST_PRIORITY, this,
+					"exportMetrics");
+			SimulationLogger.BUILDER.info("[Metrics] exported every tick");
+		}
+	}
+
+	private Context<Object> getCurrentContext() {
+		return run.getContext();
+	}
+
+}
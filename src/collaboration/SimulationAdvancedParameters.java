@@ -12,5 +12,33 @@ public class SimulationAdvancedParameters {
 	public static final int agentSkillsMaximumExperience = 1000;
 	public static final int lowestTop = 10000;
 	public static final int equilibriumDetectionSensitivity = 10;
+	public static final String equilibriumTest = "variance";
+	public static final double equilibriumTolerance = 1e-4;
+	
+	public static final boolean sigmoidLookupTable = true;
+	public static final int sigmoidTableResolution = 4096;
+	public static final double sigmoidTableTolerance = 1e-6;
+	
+	public static final int jobHistoryRetention = 8;
+	public static final boolean jobHistorySpill = false;
+	
+	public static final boolean taskFeedPrefetch = true;
+	public static final int taskFeedCapacity = 64;
+	
+	public static final String centralAssignmentSolver = "auto";
+	public static final int centralAssignmentHungarianLimit = 150;
+	public static final int centralAssignmentBudget = 0; // ms, 0 - no limit
+	public static final boolean centralPlanningIncremental = false;
+	
+	public static final boolean parallelAgentSteps = false;
+	public static final int parallelAgentThreads = 0;
+	
+	public static final double skillAbandonRate = 0.01;
+	public static final int tournamentSize = 3;
+	public static final double truncationRatio = 0.5;
+	public static final int elitismCount = 1;
+	
+	public static final boolean metricsEnabled = true;
+	public static final boolean metricsCsv = true;
 
 }
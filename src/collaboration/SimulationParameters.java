@@ -1,6 +1,9 @@
 package collaboration;
 
+import java.util.Map;
+
 import load.AgentCountConverter;
+import load.EvolutionOperatorSetConverter;
 import load.ExpDecayOptionConverter;
 import load.FunctionSetConverter;
 import load.GenerationLengthConverter;
@@ -10,8 +13,6 @@ import load.SigmoidParameterConverter;
 import load.SkillStrategySetConverter;
 import load.TaskCountConverter;
 import load.TaskStrategySetConverter;
-import repast.simphony.engine.environment.RunEnvironment;
-import repast.simphony.parameter.Parameters;
 
 /**
  * Basically stores parameters from repast file to a holder Simulation
@@ -30,8 +31,21 @@ public class SimulationParameters {
 	public static int randomSeed;
 	public static int sweepRuns;
 
-	public static void init() {
-		Parameters param = RunEnvironment.getInstance().getParameters();
+	/**
+	 * Names of all parameters read from a scenario
+	 */
+	public static final String[] NAMES = { "planNumber", "generationLength",
+			"agentCount", "experienceDecay", "utilityFunction", "granularity",
+			"skillChoiceAlgorithm", "taskChoiceAlgorithm",
+			"parametrizedSigmoid", "sigmoidParameter", "numTasks",
+			"evolutionEnabled", "evolutionOperator", "randomSeed",
+			"sweepRuns" };
+
+	/**
+	 * Initializes parameters from values given by name, read from the Repast
+	 * scenario (RepastRun) or from a batch file without Repast
+	 */
+	public static void init(Map<String, Object> param) {
 
 		AgentCountConverter agentCountConverter = new AgentCountConverter();
 		GenerationLengthConverter generationLengthConverter = new GenerationLengthConverter();
@@ -46,35 +60,38 @@ public class SimulationParameters {
 		SigmoidParameterConverter sigmoidParameterConverter = new SigmoidParameterConverter();
 		
 		TaskCountConverter taskCountConverter = new TaskCountConverter();
+		EvolutionOperatorSetConverter evolutionOperatorSetConverter = new EvolutionOperatorSetConverter();
 
-		planNumber = (Integer) param.getValue("planNumber");
+		planNumber = (Integer) param.get("planNumber");
 
 		generationLengthConverter.fromString((String) param
-				.getValue("generationLength"));
-		agentCountConverter.fromString((String) param.getValue("agentCount"));
+				.get("generationLength"));
+		agentCountConverter.fromString((String) param.get("agentCount"));
 		expDecayOptionConverter.fromString((String) param
-				.getValue("experienceDecay"));
+				.get("experienceDecay"));
 		functionSetConverter.fromString((String) param
-				.getValue("utilityFunction"));
+				.get("utilityFunction"));
 		
 		granularityOptionConverter.fromString((String) param
-				.getValue("granularity"));
+				.get("granularity"));
 		skillStrategySetConverter.fromString(((String) param
-				.getValue("skillChoiceAlgorithm")).toUpperCase());
+				.get("skillChoiceAlgorithm")).toUpperCase());
 		taskStrategySetConverter.fromString(((String) param
-				.getValue("taskChoiceAlgorithm")).toUpperCase());
+				.get("taskChoiceAlgorithm")).toUpperCase());
 		
 		parametrizedSigmoidOptionConverter.fromString((String) param
-				.getValue("parametrizedSigmoid"));
+				.get("parametrizedSigmoid"));
 		sigmoidParameterConverter.fromString((String) param
-				.getValue("sigmoidParameter"));
+				.get("sigmoidParameter"));
 		
 		taskCountConverter.fromString(((String) param
-				.getValue("numTasks")).toUpperCase());
+				.get("numTasks")).toUpperCase());
 
-		evolutionEnabled = (Integer) param.getValue("evolutionEnabled");
+		evolutionEnabled = (Integer) param.get("evolutionEnabled");
+		evolutionOperatorSetConverter.fromString((String) param
+				.get("evolutionOperator"));
 
-		randomSeed = (Integer) param.getValue("randomSeed");
-		sweepRuns = (Integer) param.getValue("sweepRuns");
+		randomSeed = (Integer) param.get("randomSeed");
+		sweepRuns = (Integer) param.get("sweepRuns");
 	}
 }
@@ -0,0 +1,227 @@
+package collaboration;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import repast.simphony.context.Context;
+
+/**
+ * State of a single simulation run - contexts, identifiers and everything
+ * which used to be kept in static fields (classes keep their part through a
+ * RunLocal). A thread works on the run it was bound to, threads without a
+ * binding (Repast GUI and batch, one run at a time) share the default run,
+ * which is cleared at the start of every build.
+ * 
+ * Subclasses provide the engine - ticks, ending, scheduling, parameters and
+ * random seed: HeadlessRun has its own tick loop, RepastRun delegates to the
+ * Repast runtime. Nothing else in the model talks to the engine.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public abstract class SimulationRun {
+
+	/**
+	 * Marks a RunLocal explicitly set to null
+	 */
+	private static final Object NULL = new Object();
+
+	/**
+	 * Priorities of actions called first and last in a tick, the same as in
+	 * Repast ScheduleParameters
+	 */
+	public static final double FIRST_PRIORITY = Double.POSITIVE_INFINITY;
+	public static final double LAST_PRIORITY = Double.NEGATIVE_INFINITY;
+
+	private static volatile SimulationRun defaultRun;
+	private static final ThreadLocal<SimulationRun> bound = new ThreadLocal<SimulationRun>();
+
+	private volatile Object[] locals = new Object[0];
+
+	private Context<Object> context;
+	private Context<Task> tasks;
+	private Context<Agent> agents;
+	private Context<Skill> skills;
+	private GameController gameController;
+
+	private final AtomicInteger agentIds = new AtomicInteger();
+	private final AtomicInteger taskIds = new AtomicInteger();
+	private volatile boolean activity = false;
+
+	/**
+	 * @return run bound to the calling thread, or the default run
+	 */
+	public static SimulationRun current() {
+		SimulationRun run = bound.get();
+		if (run == null) {
+			run = defaultRun;
+			if (run == null) {
+				throw new IllegalStateException(
+						"No simulation run bound to thread "
+								+ Thread.currentThread().getName());
+			}
+		}
+		return run;
+	}
+
+	/**
+	 * Run of threads which were not bound to any, set by CollaborationBuilder
+	 */
+	static void setDefault(SimulationRun run) {
+		defaultRun = run;
+	}
+
+	/**
+	 * Makes this run the current one for the calling thread
+	 * 
+	 * @return run bound before, to be given back to restore()
+	 */
+	public SimulationRun bind() {
+		SimulationRun previous = bound.get();
+		bound.set(this);
+		return previous;
+	}
+
+	public static void restore(SimulationRun previous) {
+		if (previous == null) {
+			bound.remove();
+		} else {
+			bound.set(previous);
+		}
+	}
+
+	/**
+	 * Forgets the whole state, every RunLocal gets its initial value again
+	 */
+	public synchronized void clear() {
+		locals = new Object[0];
+		context = null;
+		tasks = null;
+		agents = null;
+		skills = null;
+		gameController = null;
+		agentIds.set(0);
+		taskIds.set(0);
+		activity = false;
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T getLocal(RunLocal<T> local) {
+		Object[] values = locals;
+		if (local.index < values.length) {
+			Object value = values[local.index];
+			if (value != null) {
+				return value == NULL ? null : (T) value;
+			}
+		}
+		return initLocal(local);
+	}
+
+	@SuppressWarnings("unchecked")
+	private synchronized <T> T initLocal(RunLocal<T> local) {
+		Object value = ensureCapacity(local.index)[local.index];
+		if (value == null) {
+			T initial = local.initialValue();
+			locals[local.index] = initial == null ? NULL : initial;
+			return initial;
+		}
+		return value == NULL ? null : (T) value;
+	}
+
+	synchronized <T> void setLocal(RunLocal<T> local, T value) {
+		ensureCapacity(local.index)[local.index] = value == null ? NULL : value;
+	}
+
+	private Object[] ensureCapacity(int index) {
+		if (index >= locals.length) {
+			locals = Arrays.copyOf(locals,
+					Math.max(index + 1, locals.length * 2));
+		}
+		return locals;
+	}
+
+	public int nextAgentId() {
+		return agentIds.incrementAndGet();
+	}
+
+	public int nextTaskId() {
+		return taskIds.incrementAndGet();
+	}
+
+	public boolean getActivity() {
+		return activity;
+	}
+
+	public void setActivity(boolean activity) {
+		this.activity = activity;
+	}
+
+	public Context<Object> getContext() {
+		return context;
+	}
+
+	public void setContext(Context<Object> context) {
+		this.context = context;
+	}
+
+	public Context<Task> getTasks() {
+		return tasks;
+	}
+
+	public void setTasks(Context<Task> tasks) {
+		this.tasks = tasks;
+	}
+
+	public Context<Agent> getAgents() {
+		return agents;
+	}
+
+	public void setAgents(Context<Agent> agents) {
+		this.agents = agents;
+	}
+
+	public Context<Skill> getSkills() {
+		return skills;
+	}
+
+	public void setSkills(Context<Skill> skills) {
+		this.skills = skills;
+	}
+
+	public GameController getGameController() {
+		return gameController;
+	}
+
+	public void setGameController(GameController gameController) {
+		this.gameController = gameController;
+	}
+
+	public abstract int getBatchNumber();
+
+	public abstract int getRunNumber();
+
+	public abstract boolean isBatch();
+
+	public abstract double getTick();
+
+	public abstract void endRun();
+
+	/**
+	 * Schedules a public no-argument method of target to be called every
+	 * interval ticks starting with tick start
+	 */
+	public abstract void schedule(double start, double interval,
+			double priority, Object target, String method);
+
+	/**
+	 * Loads parameters of the run into SimulationParameters
+	 */
+	public abstract void initParameters();
+
+	/**
+	 * Seeds random generators of the run, see RandomStreams
+	 */
+	public abstract void initRandom();
+
+}
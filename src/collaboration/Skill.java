@@ -6,6 +6,7 @@ import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
+import logger.SimulationLogger;
 import repast.simphony.context.DefaultContext;
 import constants.Constraints;
 
@@ -36,7 +37,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		this.name = name;
 		this.id = id;
 		this.category = new Category(type);
-		System.out.println("Skill created with name=" + name + " type=" + type);
+		SimulationLogger.SKILL.debug("Skill created with name=" + name + " type=" + type);
 	}
 
 	public String getName() {
@@ -47,6 +48,10 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		this.name = name;
 	}
 
+	public int getSkillId() {
+		return id;
+	}
+
 	public int getStrength() {
 		return strength;
 	}
@@ -84,7 +89,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 	}
 	
 	public String getMostLeastRequired() {
-		Skills skills = ((Skills) CollaborationBuilder.skills);
+		Skills skills = ((Skills) SimulationRun.current().getSkills());
 		SortedMap<Double, Skill> mostNeeded = new TreeMap<>();
 		
 		for (Entry<Skill, List<TaskInternals>> entry : skills.getSkillsUsed().entrySet()) {
@@ -119,7 +124,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		long size = 0;
 		
 		try{
-			List<TaskInternals> allTaskInternals = ((Skills) CollaborationBuilder.skills).getSkillsUsed().get(this);
+			List<TaskInternals> allTaskInternals = ((Skills) SimulationRun.current().getSkills()).getSkillsUsed().get(this);
 			for(TaskInternals taskInternal: allTaskInternals) {
 				if(!taskInternal.isWorkDone()) {
 					result += taskInternal.getWorkLeftInPerc();
@@ -141,7 +146,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		long size = 0;
 		
 		try{
-			List<TaskInternals> allTaskInternals = ((Skills) CollaborationBuilder.skills).getSkillsUsed().get(this);
+			List<TaskInternals> allTaskInternals = ((Skills) SimulationRun.current().getSkills()).getSkillsUsed().get(this);
 			
 			for(TaskInternals taskInternal: allTaskInternals) {
 				if(!taskInternal.isWorkDone()) {
@@ -164,7 +169,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		long size = 0;
 		
 		try{
-			List<TaskInternals> allTaskInternals = ((Skills) CollaborationBuilder.skills).getSkillsUsed().get(this);
+			List<TaskInternals> allTaskInternals = ((Skills) SimulationRun.current().getSkills()).getSkillsUsed().get(this);
 			
 			for(TaskInternals taskInternal: allTaskInternals) {
 				if(!taskInternal.isWorkDone()) {
@@ -187,7 +192,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		long size = 0;
 		
 		try{
-			List<TaskInternals> allTaskInternals = ((Skills) CollaborationBuilder.skills).getSkillsUsed().get(this);
+			List<TaskInternals> allTaskInternals = ((Skills) SimulationRun.current().getSkills()).getSkillsUsed().get(this);
 			
 			for(TaskInternals taskInternal: allTaskInternals) {
 				if(!taskInternal.isWorkDone()) {
@@ -209,7 +214,7 @@ public class Skill extends DefaultContext<Skill> implements Serializable{
 		double result = 0;
 		long size = 0;
 		
-		for(Agent agent: CollaborationBuilder.agents.getObjects(Agent.class)){
+		for(Agent agent: SimulationRun.current().getAgents().getObjects(Agent.class)){
 			AgentInternals internals = agent.getAgentInternals(this.getName());
 			if (internals != null) {
 				result += internals.getExperience().getDelta();
@@ -7,6 +7,8 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
+import logger.SimulationLogger;
+
 import org.apache.commons.lang3.SystemUtils;
 
 import au.com.bytecode.opencsv.CSVReader;
@@ -48,7 +50,7 @@ public class SkillFactory {
 	}
 
 	public Set<Skill> buildSkillsLibrary() throws IOException, FileNotFoundException {
-		System.out.println("Searching for file in path: " + new File(".").getAbsolutePath());
+		SimulationLogger.SKILL.info("Searching for file in path: " + new File(".").getAbsolutePath());
 		CSVReader reader = new CSVReader(new FileReader(filename));
 		
 		Set<Skill> listSkills = new HashSet<Skill>();
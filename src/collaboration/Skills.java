@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import repast.simphony.context.Context;
 import repast.simphony.context.DefaultContext;
@@ -22,6 +23,16 @@ public class Skills extends DefaultContext<Skill> {
 	
 	private Set<Skill> listSkills;
 	private Map<Skill, List<TaskInternals>> skillsUsed;
+	
+	/**
+	 * Skill lookup by name, keys are only the exact names and their
+	 * case-folded forms, written when the library is loaded
+	 */
+	private Map<String, Skill> skillsByName;
+	/**
+	 * Skill lookup by Skill.id, dense array (ids start at 1)
+	 */
+	private Skill[] skillsById;
 
 	public Skills() {
 		super("Skills");
@@ -40,6 +51,7 @@ public class Skills extends DefaultContext<Skill> {
 			for(Skill skill: listSkills) {
 				context.add(skill);
 			}
+			buildLookupTables();
 		} catch (FileNotFoundException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -49,13 +61,61 @@ public class Skills extends DefaultContext<Skill> {
 		}
 	}
 	
-	public Skill getSkill(String name) {
+	private void buildLookupTables() {
+		skillsByName = new ConcurrentHashMap<String, Skill>();
+		int maxId = 0;
 		for (Skill skill : listSkills) {
-			if (skill.getName().toLowerCase().equals(name.toLowerCase())) {
-				return skill;
-			}
+			skillsByName.put(skill.getName(), skill);
+			skillsByName.put(normalize(skill.getName()), skill);
+			maxId = Math.max(maxId, skill.getSkillId());
+		}
+		skillsById = new Skill[maxId + 1];
+		for (Skill skill : listSkills) {
+			skillsById[skill.getSkillId()] = skill;
 		}
-		return null;
+	}
+	
+	private static String normalize(String name) {
+		return name.toLowerCase();
+	}
+	
+	/**
+	 * Case insensitive lookup of a Skill by its name, O(1), safe to call from
+	 * the task feed thread. Lookup tables are not changed by lookups, hence
+	 * free-form names from the workload don't make them grow.
+	 * 
+	 * @param name - name of the language, e.g. "Java"
+	 * @return Skill or null when there is no such language
+	 */
+	public Skill getSkill(String name) {
+		Skill skill = skillsByName.get(name);
+		if (skill == null) {
+			skill = skillsByName.get(normalize(name));
+		}
+		return skill;
+	}
+	
+	/**
+	 * Lookup of a Skill by its numeric identifier, O(1)
+	 * 
+	 * @param id - Skill.getSkillId()
+	 * @return Skill or null when there is no such identifier
+	 */
+	public Skill getSkill(int id) {
+		if (id < 0 || id >= skillsById.length) {
+			return null;
+		}
+		return skillsById[id];
+	}
+	
+	/**
+	 * Upper bound (exclusive) of Skill identifiers, to be used as a size of
+	 * arrays indexed by Skill.getSkillId()
+	 * 
+	 * @return int - the highest Skill id plus one
+	 */
+	public int getSkillIdBound() {
+		return skillsById.length;
 	}
 	
 	public int countAllSkills(){
@@ -68,6 +128,7 @@ public class Skills extends DefaultContext<Skill> {
 
 	public void setListSkills(Set<Skill> listSkills) {
 		this.listSkills = listSkills;
+		buildLookupTables();
 	}
 
 	public Map<Skill, List<TaskInternals>> getSkillsUsed() {
@@ -78,6 +139,16 @@ public class Skills extends DefaultContext<Skill> {
 		this.skillsUsed = skillsUsed;
 	}
 
+	/**
+	 * Counts all skills of a task in statistics of skills, called on the
+	 * simulation thread when the task is handed over to the simulation
+	 */
+	public void addTaskInternals(Task task) {
+		for (TaskInternals taskInternals : task.getTaskInternals().values()) {
+			addTaskInternals(taskInternals);
+		}
+	}
+
 	public void addTaskInternals(TaskInternals taskInternals) {
 		Skill reported = taskInternals.getSkill();
 		if(skillsUsed.containsKey(reported)) {
@@ -0,0 +1,146 @@
+package collaboration;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import logger.SimulationLogger;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Executes the whole sweep of a batch file in one JVM, runs are spread over
+ * a fixed pool of threads, each run in its own HeadlessRun. Defaults come from
+ * emergent-task-allocation.rs/parameters.xml, constants of the batch file
+ * override them; ParametersDivider chooses the subscenario of every run by
+ * its number, the same as in Repast batch.
+ * 
+ * Usage: SweepRunner batch_params.xml [threads] [randomSeed] [stopAt]
+ * 
+ * Runs get seeds randomSeed, randomSeed + 1, ... thus results are
+ * reproducible regardless of the number of threads.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class SweepRunner {
+
+	private static final String SCENARIO_PARAMETERS = "emergent-task-allocation.rs/parameters.xml";
+	private static final String NULL_VALUE = "__NULL__";
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: SweepRunner batch_params.xml "
+					+ "[threads] [randomSeed] [stopAt]");
+			return;
+		}
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime
+				.getRuntime().availableProcessors();
+		int seed = args.length > 2 ? Integer.parseInt(args[2])
+				: (int) System.currentTimeMillis();
+		final int stopAt = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+		Map<String, Object> values = new HashMap<String, Object>();
+		Map<String, String> types = new HashMap<String, String>();
+		readDefaults(new File(SCENARIO_PARAMETERS), values, types);
+		int runs = readSweep(new File(args[0]), values, types);
+		values.put("randomSeed", seed);
+		// read-only for the runs, shared by all of them
+		SimulationParameters.init(values);
+
+		SimulationLogger.BUILDER.info("Sweep of " + runs + " runs on "
+				+ threads + " threads, randomSeed " + seed);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 1; i <= runs; i++) {
+			final int runNumber = i;
+			final long runSeed = seed + runNumber - 1;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						new HeadlessRun(runNumber, runSeed, stopAt).execute();
+					} catch (RuntimeException e) {
+						SimulationLogger.BUILDER.error("Run " + runNumber
+								+ " failed", e);
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		ParallelSteps.shutdown();
+	}
+
+	/**
+	 * @return default values of all parameters of the scenario
+	 */
+	public static Map<String, Object> readDefaults() throws Exception {
+		Map<String, Object> values = new HashMap<String, Object>();
+		readDefaults(new File(SCENARIO_PARAMETERS), values,
+				new HashMap<String, String>());
+		return values;
+	}
+
+	private static void readDefaults(File file, Map<String, Object> values,
+			Map<String, String> types) throws Exception {
+		NodeList parameters = parse(file).getElementsByTagName("parameter");
+		for (int i = 0; i < parameters.getLength(); i++) {
+			Element parameter = (Element) parameters.item(i);
+			String name = parameter.getAttribute("name");
+			String type = parameter.getAttribute("type");
+			types.put(name, type);
+			values.put(name,
+					convert(type, parameter.getAttribute("defaultValue")));
+		}
+	}
+
+	/**
+	 * @return number of runs of the sweep
+	 */
+	private static int readSweep(File file, Map<String, Object> values,
+			Map<String, String> types) throws Exception {
+		Document document = parse(file);
+		NodeList parameters = document.getElementsByTagName("parameter");
+		for (int i = 0; i < parameters.getLength(); i++) {
+			Element parameter = (Element) parameters.item(i);
+			if (!"constant".equals(parameter.getAttribute("type"))) {
+				SimulationLogger.BUILDER.warn("Only constant parameters are "
+						+ "supported, skipping " + parameter.getAttribute("name"));
+				continue;
+			}
+			String name = parameter.getAttribute("name");
+			// the scenario decides the type, as Repast does
+			String type = types.containsKey(name) ? types.get(name)
+					: parameter.getAttribute("constant_type");
+			values.put(name, convert(type, parameter.getAttribute("value")));
+		}
+		return Integer.parseInt(document.getDocumentElement().getAttribute(
+				"runs"));
+	}
+
+	private static Document parse(File file) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(file);
+	}
+
+	private static Object convert(String type, String value) {
+		if (NULL_VALUE.equals(value)) {
+			return null;
+		} else if ("int".equals(type) || "java.lang.Integer".equals(type)) {
+			return Integer.valueOf(value);
+		} else if ("boolean".equals(type) || "java.lang.Boolean".equals(type)) {
+			return Boolean.valueOf(value);
+		} else {
+			return value;
+		}
+	}
+
+}
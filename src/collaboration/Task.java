@@ -2,20 +2,18 @@ package collaboration;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import repast.simphony.context.Context;
-import repast.simphony.random.RandomHelper;
-import repast.simphony.util.ContextUtils;
+import logger.SimulationLogger;
 import strategies.CentralAssignmentTask;
 import strategies.GreedyAssignmentTask;
 import strategies.ProportionalTimeDivision;
 import strategies.Strategy;
 import tasks.CentralAssignmentOrders;
+import utils.RandomStreams;
 import argonauts.GranulatedChoice;
 import argonauts.PersistJobDone;
 import constants.Constraints;
@@ -51,37 +49,53 @@ public class Task {
 	 */
 	public static final long serialVersionUID = 75L;
 
-	private static int idIncrementalCounter = 0;
-	private static GameController gameController;
 	private Long numberOfVisits;
 
 	private String name;
-	private final int id = ++idIncrementalCounter;
+	private final int id = SimulationRun.current().nextTaskId();
 
 	private Map<String, TaskInternals> skills = new HashMap<String, TaskInternals>();
 	private Map<Skill, Double> persistAdvance = new HashMap<Skill, Double>();
+	private final SkillMask mask = new SkillMask();
+
+	/**
+	 * Cached result of getGeneralAdvance(), recalculated only after work was
+	 * done in one of TaskInternals or the set of TaskInternals changed
+	 */
+	private double generalAdvance;
+	private boolean advanceDirty = true;
+
+	/**
+	 * True when visits or advance changed since Tasks last ranked this Task.
+	 * A new Task is ranked when it enters the pool, until then changes are
+	 * not reported - it may be built on the task feed thread.
+	 */
+	private boolean rankingDirty = true;
 
 	public Task() {
 		this.name = "Task_" + this.id;
 		this.numberOfVisits = 0L;
-		System.out.println("[Task] object " + this + " created");
-	}
-
-	@SuppressWarnings("unchecked")
-	public GameController initGameController() {
-		Context<Task> context = ContextUtils.getContext(this);
-		Context<Object> parentContext = ContextUtils.getParentContext(context);
-		gameController = (GameController) parentContext.getObjects(
-				GameController.class).get(0);
-		return gameController;
+		if (SimulationLogger.TASK.isDebug()) {
+			SimulationLogger.TASK.debug("[Task] object " + this + " created");
+		}
 	}
 
 	public void addSkill(String key, TaskInternals taskInternals) {
-		skills.put(key, taskInternals);
+		TaskInternals replaced = skills.put(key, taskInternals);
+		if (replaced != null) {
+			mask.clear(replaced.getSkill().getSkillId());
+		}
+		mask.set(taskInternals.getSkill().getSkillId());
+		invalidateAdvance();
 	}
 
 	public void removeSkill(String key) {
-		skills.remove(key);
+		TaskInternals removed = skills.remove(key);
+		if (removed != null) {
+			mask.clear(removed.getSkill().getSkillId());
+			invalidateAdvance();
+			Tasks.reportSkillRemoved(this, removed.getSkill());
+		}
 	}
 
 	public TaskInternals getTaskInternals(String skillName) {
@@ -93,7 +107,7 @@ public class Task {
 	}
 
 	public TaskInternals getRandomTaskInternals() {
-		return (TaskInternals) skills.values().toArray()[RandomHelper
+		return (TaskInternals) skills.values().toArray()[RandomStreams
 				.nextIntFromTo(0, skills.size() - 1)];
 	}
 
@@ -103,6 +117,18 @@ public class Task {
 
 	public void setTaskInternals(Map<String, TaskInternals> skills) {
 		this.skills = skills;
+		mask.clear();
+		for (TaskInternals taskInternals : skills.values()) {
+			mask.set(taskInternals.getSkill().getSkillId());
+		}
+		invalidateAdvance();
+	}
+
+	/**
+	 * @return identifiers of Task's skills as a bit mask
+	 */
+	public SkillMask getSkillMask() {
+		return mask;
 	}
 
 	public int countTaskInternals() {
@@ -147,24 +173,53 @@ public class Task {
 		return (persistTaskAdvance / ((double) persistAdvance.values().size()));
 	}
 
+	/**
+	 * Marks the cached general advance as outdated, called when a WorkUnit of
+	 * this Task is incremented or the TaskInternals change
+	 */
+	void invalidateAdvance() {
+		advanceDirty = true;
+		invalidateRanking();
+	}
+
+	private void invalidateRanking() {
+		if (!rankingDirty) {
+			rankingDirty = true;
+			Tasks.reportChanged(this);
+		}
+	}
+
+	/**
+	 * Called by Tasks after the Task was ranked again
+	 */
+	void rankingUpdated() {
+		rankingDirty = false;
+	}
+
 	/**
 	 * Gets the general completion of the Task. Calculates work done inside the
-	 * Skills and divides by the number of skills.
+	 * Skills and divides by the number of skills. Result is cached until work
+	 * is done in this Task.
 	 * 
 	 * @return Always the value between [0;1]
 	 */
 	public double getGeneralAdvance() {
+		if (advanceDirty) {
+			generalAdvance = calculateGeneralAdvance();
+			advanceDirty = false;
+		}
+		return generalAdvance;
+	}
+
+	private double calculateGeneralAdvance() {
 		double result = 0;
 		double count = 0;
 		for (TaskInternals skill : skills.values()) {
 			double progress = skill.getProgress();
-			System.out.println("Skill " + skill.getSkill().getName() + " progress " + progress);
 			result += progress > 1.0 ? 1.0 : progress;
-			System.out.println("Result GA(T) is: " + result);
 			persistAdvance.put(skill.getSkill(), progress);
 			count++;
 		}
-		System.out.println("Skills count " + count);
 		if (count == 0) {
 			// all TaskInternals are gone, thus the Task is finished 100% !
 			return 1;
@@ -188,9 +243,12 @@ public class Task {
 	private Collection<TaskInternals> computeIntersection(Agent agent,
 			Collection<TaskInternals> skillsValues) {
 		Collection<TaskInternals> returnCollection = new ArrayList<TaskInternals>();
+		SkillMask agentMask = agent.getSkillMask();
+		if (!agentMask.intersects(mask)) {
+			return returnCollection;
+		}
 		for (TaskInternals singleTaskInternal : skillsValues) {
-			if (agent
-					.getAgentInternals(singleTaskInternal.getSkill().getName()) != null) {
+			if (agentMask.get(singleTaskInternal.getSkill())) {
 				returnCollection.add(singleTaskInternal);
 			}
 		}
@@ -354,9 +412,9 @@ public class Task {
 			for (TaskInternals taskInternalsR : intersection) {
 				intersectionToShuffle.add(taskInternalsR);
 			}
-			Collections.shuffle(intersectionToShuffle);
+			RandomStreams.shuffle(intersectionToShuffle, agent);
 			TaskInternals randomTaskInternal = (intersectionToShuffle)
-					.get(RandomHelper.nextIntFromTo(0,
+					.get(RandomStreams.nextIntFromTo(agent, 0,
 							intersectionToShuffle.size() - 1));
 			{
 				/*System.out.println("Choosing Si:{"
@@ -437,7 +495,7 @@ public class Task {
 	}
 
 	public GameController getGameController() {
-		return gameController == null ? initGameController() : gameController;
+		return SimulationRun.current().getGameController();
 	}
 
 	public int getIteration() {
@@ -454,6 +512,7 @@ public class Task {
 
 	public void setNumberOfVisits(Long numberOfVisits) {
 		this.numberOfVisits = numberOfVisits;
+		invalidateRanking();
 	}
 
 	public void increaseNumberOfVisits() {
@@ -461,6 +520,7 @@ public class Task {
 			throw new UnsupportedOperationException(
 					Constraints.MAX_VALUE_REACHED);
 		this.numberOfVisits++;
+		invalidateRanking();
 	}
 
 }
@@ -0,0 +1,133 @@
+package collaboration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/***
+ * Indexed binary max-heap of Tasks by a key (number of visits, general
+ * advance). Equal keys are ordered by Task id, lower first. A position map
+ * lets the key of any Task be changed or the Task removed in O(log n).
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class TaskHeap {
+
+	private Task[] tasks = new Task[16];
+	private double[] keys = new double[16];
+	private int size = 0;
+	private final Map<Task, Integer> positions = new HashMap<Task, Integer>();
+
+	/**
+	 * Adds the task or changes its key
+	 */
+	void put(Task task, double key) {
+		Integer position = positions.get(task);
+		if (position == null) {
+			if (size == tasks.length) {
+				tasks = Arrays.copyOf(tasks, size * 2);
+				keys = Arrays.copyOf(keys, size * 2);
+			}
+			tasks[size] = task;
+			keys[size] = key;
+			positions.put(task, size);
+			up(size++);
+		} else if (keys[position] != key) {
+			keys[position] = key;
+			up(position);
+			down(positions.get(task));
+		}
+	}
+
+	void remove(Task task) {
+		Integer position = positions.remove(task);
+		if (position == null) {
+			return;
+		}
+		int last = --size;
+		if (position != last) {
+			move(last, position);
+			tasks[last] = null;
+			up(position);
+			down(positions.get(tasks[position]));
+		} else {
+			tasks[last] = null;
+		}
+	}
+
+	Task peek() {
+		return size == 0 ? null : tasks[0];
+	}
+
+	double peekKey() {
+		return keys[0];
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void clear() {
+		Arrays.fill(tasks, 0, size, null);
+		size = 0;
+		positions.clear();
+	}
+
+	/**
+	 * @return true when task a should be closer to the top than b
+	 */
+	static boolean before(Task a, double keyA, Task b, double keyB) {
+		return keyA > keyB || (keyA == keyB && a.getId() < b.getId());
+	}
+
+	private boolean before(int i, int j) {
+		return before(tasks[i], keys[i], tasks[j], keys[j]);
+	}
+
+	private void up(int i) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(i, parent)) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void down(int i) {
+		while (true) {
+			int left = 2 * i + 1;
+			if (left >= size) {
+				break;
+			}
+			int child = left + 1 < size && before(left + 1, left) ? left + 1
+					: left;
+			if (!before(child, i)) {
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		Task task = tasks[i];
+		double key = keys[i];
+		tasks[i] = tasks[j];
+		keys[i] = keys[j];
+		tasks[j] = task;
+		keys[j] = key;
+		positions.put(tasks[i], i);
+		positions.put(tasks[j], j);
+	}
+
+	private void move(int from, int to) {
+		tasks[to] = tasks[from];
+		keys[to] = keys[from];
+		positions.put(tasks[to], to);
+	}
+
+}
@@ -26,7 +26,8 @@ public class TaskInternals {
 		this.workDone = workDone;
 		this.workRequired = workRequired;
 		this.owner = owner;
-		((Skills) CollaborationBuilder.skills).addTaskInternals(this);
+		workDone.bindTo(owner);
+		workRequired.bindTo(owner);
 	}
 
 	public Skill getSkill() {
@@ -47,6 +48,8 @@ public class TaskInternals {
 
 	public void setOwner(Task owner) {
 		this.owner = owner;
+		workDone.bindTo(owner);
+		workRequired.bindTo(owner);
 	}
 
 	public WorkUnit getWorkRequired() {
@@ -55,6 +58,9 @@ public class TaskInternals {
 
 	public void setWorkRequired(WorkUnit workRequired) {
 		this.workRequired = workRequired;
+		workRequired.bindTo(owner);
+		if (owner != null)
+			owner.invalidateAdvance();
 	}
 
 	public WorkUnit getWorkDone() {
@@ -63,6 +69,9 @@ public class TaskInternals {
 
 	public void setWorkDone(WorkUnit workDone) {
 		this.workDone = workDone;
+		workDone.bindTo(owner);
+		if (owner != null)
+			owner.invalidateAdvance();
 	}
 
 	public boolean isWorkDone() {
@@ -6,14 +6,18 @@ import intelligence.TasksDiviner;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import logger.Metrics;
+import logger.SimulationLogger;
 import repast.simphony.context.Context;
+import repast.simphony.context.ContextEvent;
+import repast.simphony.context.ContextListener;
 import repast.simphony.context.DefaultContext;
 import strategies.Strategy;
 
@@ -32,27 +36,69 @@ public class Tasks extends DefaultContext<Task> {
 
 	private Integer allowedLoad;
 
+	/**
+	 * Inverted index Skill -> Tasks requiring it, kept up to date by context
+	 * add/remove events and by removal of finished TaskInternals
+	 */
+	private Map<Skill, Set<Task>> tasksPerSkill = new HashMap<Skill, Set<Task>>();
+
+	/**
+	 * Task registry (Task name -> Task), kept up to date by context add/remove
+	 * events, exposed to the strategies through a read-only view
+	 */
+	private Map<String, Task> tasksByName = new HashMap<String, Task>();
+	private Map<String, Task> tasksByNameView = Collections
+			.unmodifiableMap(tasksByName);
+
+	/**
+	 * Popularity rankings for the Preferential strategy - per skill by number
+	 * of visits and by general advance, and all tasks by general advance.
+	 * Tasks report changes, rankings catch up lazily in refreshRanking()
+	 */
+	private Map<Skill, TaskHeap> visitsPerSkill = new HashMap<Skill, TaskHeap>();
+	private Map<Skill, TaskHeap> advancePerSkill = new HashMap<Skill, TaskHeap>();
+	private TaskHeap advance = new TaskHeap();
+	private OpenTasks open = new OpenTasks();
+	private List<Task> changed = new ArrayList<Task>();
+	/**
+	 * Set for the decide phase of ParallelSteps, rankings are only read then
+	 */
+	private volatile boolean readOnly = false;
+
 	private static Map<String, Task> getMappedTasks() {
-		Iterable<Task> it = CollaborationBuilder.tasks.getObjects(Task.class);
-		Map<String, Task> result = new HashMap<String, Task>();
-		Iterator<Task> iterator = it.iterator();
-		while (iterator.hasNext()) {
-			Task task = iterator.next();
-			result.put(task.getName(), task);
-		}
-		return result;
+		return ((Tasks) SimulationRun.current().getTasks()).getTaskRegistry();
 	}
 
 	private static Collection<Task> getUnmappedTasks() {
-		Iterable<Task> it = CollaborationBuilder.tasks.getObjects(Task.class);
+		Iterable<Task> it = SimulationRun.current().getTasks().getObjects(Task.class);
 		return Lists.newArrayList(it);
 	}
 
-	public static synchronized Task chooseTask(Agent agent,
+	public static Task chooseTask(Agent agent, Strategy.TaskChoice strategy) {
+		// measured together with waiting for the lock
+		long start = Metrics.start();
+		Task chosen = chooseTaskExclusively(agent, strategy);
+		Metrics.get().choose(strategy).recordSince(start);
+		return chosen;
+	}
+
+	private static synchronized Task chooseTaskExclusively(Agent agent,
 			Strategy.TaskChoice strategy) {
 		return TasksDiviner.chooseTask(agent, strategy, getMappedTasks());
 	}
 
+	/**
+	 * Chooses task without locking, valid only when no agent modifies the
+	 * pool of tasks at the same time - decide phase of ParallelSteps
+	 */
+	public static Task chooseTaskConcurrently(Agent agent,
+			Strategy.TaskChoice strategy) {
+		long start = Metrics.start();
+		Task chosen = TasksDiviner.chooseTask(agent, strategy, getMappedTasks());
+		Metrics.get().choose(strategy).recordSince(start);
+		return chosen;
+	}
+
 	public static void considerEnding(Task task) {
 		boolean notfinished = false;
 		for (TaskInternals taskInternal : task.getTaskInternals().values()) {
@@ -62,9 +108,12 @@ public class Tasks extends DefaultContext<Task> {
 			}
 		}
 		if (!notfinished) {
-			CollaborationBuilder.tasks.remove(task);
-			System.out.println("[Task] id:" + task.getId() + " name:" + task.getName()
-					+ " is depleted and leaving the environment");
+			SimulationRun.current().getTasks().remove(task);
+			Metrics.get().departed().increment();
+			if (SimulationLogger.TASK.isDebug()) {
+				SimulationLogger.TASK.debug("[Task] id:" + task.getId() + " name:"
+						+ task.getName() + " is depleted and leaving the environment");
+			}
 		}
 	}
 
@@ -107,22 +156,43 @@ public class Tasks extends DefaultContext<Task> {
 		return result;
 	}*/
 
+	/**
+	 * Returns all tasks which require at least one of the given skills. Uses
+	 * the inverted skill index, hence it costs O(matching tasks)
+	 * 
+	 * @param c
+	 *            - collection of skills (e.g. skills of an Agent)
+	 * @return Set<Task> - a new set, safe to modify by the caller
+	 */
 	public static Set<Task> getTasksHavingSkills(Collection<Skill> c) {
-		Set<Task> result = new HashSet<Task>();
-		for (Skill skill : c) {
-			for (Task task : getUnmappedTasks()) {
-				Collection<Skill> ts = task.getSkills();
-				if (ts.contains(skill)) {
-					result.add(task);
-				}
-			}
+		return ((Tasks) SimulationRun.current().getTasks()).getIndexedTasks(c);
+	}
+
+	/**
+	 * Called by a Task when one of its TaskInternals is finished and removed
+	 * 
+	 * @param task
+	 * @param skill
+	 *            - skill of the removed TaskInternals
+	 */
+	public static void reportSkillRemoved(Task task, Skill skill) {
+		if (SimulationRun.current().getTasks() instanceof Tasks) {
+			((Tasks) SimulationRun.current().getTasks()).unindex(task, skill);
+		}
+	}
+
+	/**
+	 * Called by a Task when its number of visits or general advance changed
+	 */
+	static void reportChanged(Task task) {
+		if (SimulationRun.current().getTasks() instanceof Tasks) {
+			((Tasks) SimulationRun.current().getTasks()).changed.add(task);
 		}
-		return result;
 	}
 
 	public static boolean stillNonEmptyTasks() {
 		boolean result = false;
-		if (CollaborationBuilder.tasks.size() < 1)
+		if (SimulationRun.current().getTasks().size() < 1)
 			return result;
 		for (Task task : getUnmappedTasks()) {
 			if (!task.isClosed())
@@ -132,16 +202,29 @@ public class Tasks extends DefaultContext<Task> {
 	}
 
 	public static void clearTasks() {
-		if (CollaborationBuilder.tasks != null)
-			CollaborationBuilder.tasks.clear();
+		if (SimulationRun.current().getTasks() != null)
+			SimulationRun.current().getTasks().clear();
 	}
 
 	public Tasks(Integer allowedLoad) {
 		super("Tasks");
 		this.allowedLoad = allowedLoad;
+		addContextListener(new TasksIndexListener());
 		initializeTasks(this);
 	}
 
+	@Override
+	public void clear() {
+		super.clear();
+		tasksPerSkill.clear();
+		tasksByName.clear();
+		visitsPerSkill.clear();
+		advancePerSkill.clear();
+		advance.clear();
+		open.clear();
+		changed.clear();
+	}
+
 	/**
 	 * Count all Tasks in the pool
 	 * 
@@ -166,7 +249,17 @@ public class Tasks extends DefaultContext<Task> {
 	}
 
 	public Task getTask(String key) {
-		return getMappedTasks().get(key);
+		return tasksByName.get(key);
+	}
+
+	/**
+	 * Returns a live, read-only view of all tasks in the context mapped by
+	 * their names. Nothing is copied, so it is cheap to call every tick
+	 * 
+	 * @return Map<String, Task> - unmodifiable view of the task registry
+	 */
+	public Map<String, Task> getTaskRegistry() {
+		return tasksByNameView;
 	}
 
 	public Collection<Task> getTasks() {
@@ -192,6 +285,224 @@ public class Tasks extends DefaultContext<Task> {
 		return result;
 	}
 
+	/**
+	 * Tasks which require the given skill, straight from the inverted index.
+	 * The set is live and must not be modified by the caller
+	 * 
+	 * @param skill
+	 * @return Set<Task> - possibly empty, never null
+	 */
+	public Set<Task> getTasksHavingSkill(Skill skill) {
+		Set<Task> indexed = tasksPerSkill.get(skill);
+		return indexed == null ? Collections.<Task> emptySet() : indexed;
+	}
+
+	/**
+	 * Tasks of the current run when the given map is their registry
+	 * 
+	 * @return Tasks or null for any other map of tasks
+	 */
+	public static Tasks indexing(Map<String, Task> tasks) {
+		Context<Task> context = SimulationRun.current().getTasks();
+		if (context instanceof Tasks
+				&& ((Tasks) context).getTaskRegistry() == tasks) {
+			return (Tasks) context;
+		}
+		return null;
+	}
+
+	/**
+	 * Brings rankings and the set of open tasks up to date with tasks which
+	 * changed since the last call. Must not run concurrently with agents
+	 * doing work, ParallelSteps calls it before the decide phase
+	 */
+	public void refreshRanking() {
+		if (changed.isEmpty()) {
+			return;
+		}
+		for (Task task : changed) {
+			// depleted tasks left the context already
+			if (tasksByName.get(task.getName()) == task) {
+				rank(task);
+			} else {
+				task.rankingUpdated();
+			}
+		}
+		changed.clear();
+	}
+
+	/**
+	 * The most visited task (at least once) requiring one of the skills, a
+	 * peek at the top of every skill's ranking
+	 * 
+	 * @return Task or null when none of them was visited
+	 */
+	public Task getMostVisitedTask(Collection<Skill> skills) {
+		refreshIfWritable();
+		Task best = peekBest(visitsPerSkill, skills);
+		return best != null && best.getNumberOfVisits() > 0 ? best : null;
+	}
+
+	/**
+	 * @return the most advanced task requiring one of the skills, or null
+	 *         when there is no such task
+	 */
+	public Task getMostAdvancedTask(Collection<Skill> skills) {
+		refreshIfWritable();
+		return peekBest(advancePerSkill, skills);
+	}
+
+	/**
+	 * Uniformly random open task (having skills, advance below 1), one
+	 * draw from the agent's random stream
+	 * 
+	 * @return Task or null when all tasks are done
+	 */
+	public Task getRandomOpenTask(Agent agent) {
+		refreshIfWritable();
+		return open.sample(agent);
+	}
+
+	/**
+	 * @return the most advanced task of all, or null when there are no tasks
+	 */
+	public Task getMostAdvancedTask() {
+		refreshIfWritable();
+		return advance.peek();
+	}
+
+	void setReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+	}
+
+	/**
+	 * Rankings were refreshed before the decide phase, agents deciding in
+	 * parallel must not touch them
+	 */
+	private void refreshIfWritable() {
+		if (!readOnly) {
+			refreshRanking();
+		}
+	}
+
+	private Task peekBest(Map<Skill, TaskHeap> rankings,
+			Collection<Skill> skills) {
+		Task best = null;
+		double bestKey = 0;
+		for (Skill skill : skills) {
+			TaskHeap ranking = rankings.get(skill);
+			if (ranking == null || ranking.isEmpty())
+				continue;
+			Task top = ranking.peek();
+			double key = ranking.peekKey();
+			if (best == null || TaskHeap.before(top, key, best, bestKey)) {
+				best = top;
+				bestKey = key;
+			}
+		}
+		return best;
+	}
+
+	private void rank(Task task) {
+		double visits = task.getNumberOfVisits();
+		double generalAdvance = task.getGeneralAdvance();
+		for (TaskInternals taskInternals : task.getTaskInternals().values()) {
+			Skill skill = taskInternals.getSkill();
+			ranking(visitsPerSkill, skill).put(task, visits);
+			ranking(advancePerSkill, skill).put(task, generalAdvance);
+		}
+		advance.put(task, generalAdvance);
+		open.update(task);
+		task.rankingUpdated();
+	}
+
+	private static TaskHeap ranking(Map<Skill, TaskHeap> rankings, Skill skill) {
+		TaskHeap ranking = rankings.get(skill);
+		if (ranking == null) {
+			ranking = new TaskHeap();
+			rankings.put(skill, ranking);
+		}
+		return ranking;
+	}
+
+	private void unrank(Task task, Skill skill) {
+		TaskHeap ranking = visitsPerSkill.get(skill);
+		if (ranking != null)
+			ranking.remove(task);
+		ranking = advancePerSkill.get(skill);
+		if (ranking != null)
+			ranking.remove(task);
+	}
+
+	private Set<Task> getIndexedTasks(Collection<Skill> c) {
+		Set<Task> result = new HashSet<Task>();
+		for (Skill skill : c) {
+			Set<Task> indexed = tasksPerSkill.get(skill);
+			if (indexed != null) {
+				result.addAll(indexed);
+			}
+		}
+		return result;
+	}
+
+	private void index(Task task) {
+		for (TaskInternals taskInternals : task.getTaskInternals().values()) {
+			Skill skill = taskInternals.getSkill();
+			Set<Task> indexed = tasksPerSkill.get(skill);
+			if (indexed == null) {
+				indexed = new HashSet<Task>();
+				tasksPerSkill.put(skill, indexed);
+			}
+			indexed.add(task);
+		}
+		rank(task);
+	}
+
+	private void unindex(Task task) {
+		for (TaskInternals taskInternals : task.getTaskInternals().values()) {
+			unindex(task, taskInternals.getSkill());
+		}
+		advance.remove(task);
+		open.remove(task);
+	}
+
+	private void unindex(Task task, Skill skill) {
+		Set<Task> indexed = tasksPerSkill.get(skill);
+		if (indexed != null) {
+			indexed.remove(task);
+			if (indexed.isEmpty()) {
+				tasksPerSkill.remove(skill);
+			}
+		}
+		unrank(task, skill);
+	}
+
+	/**
+	 * Keeps the task registry and the skill index in sync with tasks entering
+	 * and leaving the context (first tasks, continuous task flow and depleted
+	 * tasks)
+	 */
+	private class TasksIndexListener implements ContextListener<Task> {
+
+		@Override
+		public void eventOccured(ContextEvent<Task> ev) {
+			switch (ev.getType()) {
+			case AGENT_ADDED:
+				tasksByName.put(ev.getTarget().getName(), ev.getTarget());
+				index(ev.getTarget());
+				Metrics.get().arrived().increment();
+				break;
+			case AGENT_REMOVED:
+				tasksByName.remove(ev.getTarget().getName());
+				unindex(ev.getTarget());
+				break;
+			default:
+				break;
+			}
+		}
+
+	}
+
 	private void initializeTasks(Context<Task> context) {
 		assert context != null;
 		initFirstTasks(context);
@@ -205,8 +516,8 @@ public class Tasks extends DefaultContext<Task> {
 			}
 			//launchStatistics.taskCount = firstTasks.size();
 		} catch (SQLException e) {
-			System.out.println("Error during init of first " + this.allowedLoad + " [Tasks]");
-			e.printStackTrace();
+			SimulationLogger.TASK.error("Error during init of first "
+					+ this.allowedLoad + " [Tasks]", e);
 		}
 	}
 
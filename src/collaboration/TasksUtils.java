@@ -9,14 +9,34 @@ public class TasksUtils {
 	
 	public static Collection<Skill> intersectWithAgentSkills(Agent agent,
 			Collection<Skill> skills) {
+		SkillMask agentMask = agent.getSkillMask();
 		List<Skill> result = new ArrayList<Skill>();
 		for (Skill skill : skills) {
-			if (agent.getSkills().contains(skill)) {
+			if (agentMask.get(skill)) {
 				result.add(skill);
 			}
 		}
 		return result;
 	}
+
+	/**
+	 * Skills of a Task which the Agent has, in the order of task.getSkills()
+	 */
+	public static Collection<Skill> intersectWithAgentSkills(Agent agent,
+			Task task) {
+		if (!hasCommonSkill(agent, task)) {
+			return new ArrayList<Skill>();
+		}
+		return intersectWithAgentSkills(agent, task.getSkills());
+	}
+
+	public static int countCommonSkills(Agent agent, Task task) {
+		return agent.getSkillMask().countCommon(task.getSkillMask());
+	}
+
+	public static boolean hasCommonSkill(Agent agent, Task task) {
+		return agent.getSkillMask().intersects(task.getSkillMask());
+	}
 	
 	/**
 	 * This method counts the frequency of a 'Task' in HashMap<Skill,
@@ -16,7 +16,54 @@ public class Utility {
 		for (AgentInternals currentSkill : agentInternals) {
 			sum += currentSkill.getExperience().getDelta();
 		}
-		return sum / ((Skills) CollaborationBuilder.skills).countAllSkills();
+		return sum / ((Skills) SimulationRun.current().getSkills()).countAllSkills();
+	}
+
+	public static Double getNormalizedSum(AgentSkills agentSkills) {
+		double[] values = agentSkills.getValues();
+		int[] tops = agentSkills.getTops();
+		int count = (int) agentSkills.count();
+		double sum = 0d;
+		for (int i = 0; i < count; i++) {
+			sum += Experience.getDelta(values[i], tops[i]);
+		}
+		return sum / ((Skills) SimulationRun.current().getSkills()).countAllSkills();
+	}
+
+	public static Double getBestSkill(AgentSkills agentSkills) {
+		double[] values = agentSkills.getValues();
+		int[] tops = agentSkills.getTops();
+		int count = (int) agentSkills.count();
+		assert count > 0;
+		if (count == 0) {
+			return null;
+		}
+		double result = Experience.getDelta(values[0], tops[0]);
+		for (int i = 1; i < count; i++) {
+			double delta = Experience.getDelta(values[i], tops[i]);
+			if (delta > result) {
+				result = delta;
+			}
+		}
+		return result;
+	}
+
+	public static Double getWorstSkill(AgentSkills agentSkills) {
+		double[] values = agentSkills.getValues();
+		int[] tops = agentSkills.getTops();
+		int count = (int) agentSkills.count();
+		assert count > 0;
+		if (count == 0) {
+			return null;
+		}
+		double result = Experience.getDelta(values[0], tops[0]);
+		for (int i = 1; i < count; i++) {
+			double delta = Experience.getDelta(values[i], tops[i]);
+			if (delta < result) {
+				result = delta;
+			}
+		}
+		return result;
 	}
 
 	public static Double getBestSkill(Collection<AgentInternals> agentInternals) {
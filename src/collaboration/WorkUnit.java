@@ -13,6 +13,11 @@ public class WorkUnit {
 
 	public int factor;
 	public double d;
+	
+	/**
+	 * Task which progress depends on this WorkUnit, told about every increment
+	 */
+	private Task owner;
 
 	public WorkUnit(double d, int factor) {
 		this.d = d;
@@ -26,6 +31,12 @@ public class WorkUnit {
 	
 	public void increment(double how_much){
 		this.d += how_much;
+		if (owner != null)
+			owner.invalidateAdvance();
+	}
+	
+	void bindTo(Task owner) {
+		this.owner = owner;
 	}
 
 }
@@ -1,107 +1,52 @@
 package github;
 
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+
+import logger.SimulationLogger;
 
 import org.apache.commons.lang3.SystemUtils;
 
-import au.com.bytecode.opencsv.CSVReader;
 import collaboration.Agent;
 import collaboration.AgentInternals;
-import collaboration.CollaborationBuilder;
 import collaboration.Experience;
+import collaboration.RunLocal;
 import collaboration.SimulationAdvancedParameters;
+import collaboration.SimulationRun;
 import collaboration.Skill;
 import collaboration.Skills;
 
 public class AgentModeling {
 
-	private static LinkedHashMap<String, HashMap<Skill, Experience>> skillSet = 
-			new LinkedHashMap<String, HashMap<Skill, Experience>>();
+	private static final RunLocal<AgentProfiles> profiles = new RunLocal<AgentProfiles>();
 
 	private final static String filename = SystemUtils.IS_OS_LINUX ? 
 			"data/agents-model/results.csv"
 			: "data\\agents-model\\results.csv";
 
 	public static void clear() {
-		skillSet.clear();
+		profiles.set(null);
 	}
 
 	public static void instantiate() {
-		try {
-			parseCsvTopUsers();
-		} catch (FileNotFoundException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		System.out.println("Initialized Agent Skills Matrix");
-	}
-
-	private static void parseCsvTopUsers() throws IOException,
-			FileNotFoundException {
-		Integer counter = 0;
-		Map<Skill, Integer> maximums = calculateMaximums(filename);
-		CSVReader reader = new CSVReader(new FileReader(filename), ';', '\"');
-		String[] nextLine;
-		String previousId = "-1";
-		while ((nextLine = reader.readNext()) != null) {
-			String id = nextLine[0];
-			String nick = nextLine[1] + counter;
-			String language = nextLine[2];
-			int workDone = Integer.parseInt(nextLine[3]);
-			if (previousId.equals(id)) {
-				HashMap<Skill, Experience> l = skillSet.get(nick);
-				System.out.println("Parsed from CSV new language to existing person: " + nick
-						+ " - " + language);
-				Skill skill = ((Skills) CollaborationBuilder.skills).getSkill(language);
-				Experience experience = calculateExperience(workDone,
-						maximums.get(skill));
-				l.put(skill, experience);
-			} else {
-				// add new user
-				counter++;
-				nick = nextLine[1] + counter;
-				HashMap<Skill, Experience> l = new HashMap<Skill, Experience>();
-				System.out.println("Parsed from CSV new person: " + nick + " - " + language);
-				Skill skill = ((Skills) CollaborationBuilder.skills).getSkill(language);
-				Experience experience = calculateExperience(workDone,
-						maximums.get(skill));
-				l.put(skill, experience);
-				skillSet.put(nick, l);
-			}
-			previousId = id;
-		}
-		assert skillSet.size() > 99;
-		reader.close();
+		instantiate(filename);
+		assert profiles.get().size() > 99;
 	}
 
-	private static Map<Skill, Integer> calculateMaximums(String filename)
-			throws NumberFormatException, IOException {
-		Map<Skill, Integer> result = new HashMap<Skill, Integer>();
-
-		CSVReader reader = new CSVReader(new FileReader(filename), ';', '\"');
-		String[] nextLine;
-		while ((nextLine = reader.readNext()) != null) {
-			String language = nextLine[2];
-			int workDone = Integer.parseInt(nextLine[3]);
-			Skill skill = ((Skills) CollaborationBuilder.skills).getSkill(language);
-			if (result.containsKey(skill)) {
-				if (result.get(skill) < workDone) {
-					result.put(skill, workDone);
-				}
-			} else {
-				result.put(skill, workDone);
-			}
+	/**
+	 * Loads profiles of agents of the run from a file in the format of
+	 * results.csv, agent with id n gets the n-th profile
+	 */
+	public static void instantiate(String file) {
+		try {
+			profiles.set(AgentProfiles.parse(file,
+					(Skills) SimulationRun.current().getSkills()));
+		} catch (IOException e) {
+			SimulationLogger.DATA.error("Agent profiles couldn't be read from "
+					+ file, e);
+			throw new IllegalStateException(e);
 		}
-		reader.close();
-		return result;
+		SimulationLogger.DATA.info("Initialized Agent Skills Matrix with "
+				+ profiles.get().size() + " profiles");
 	}
 
 	private static Experience calculateExperience(int experience, int maximum) {
@@ -113,12 +58,26 @@ public class AgentModeling {
 	}
 
 	public static void fillWithSkills(Agent agent) {
-		HashMap<Skill, Experience> iterationSkills = AgentModelingUtils
-				.getByIndexWithIterate(skillSet, agent.getId() - 1);
-		for (Skill iterationSkill : iterationSkills.keySet()) {
-			AgentInternals builtAgentInternals = new AgentInternals(
-					iterationSkill, iterationSkills.get(iterationSkill));
-			agent.addSkill(iterationSkill.getName(), builtAgentInternals);
+		Skills skills = (Skills) SimulationRun.current().getSkills();
+		AgentProfiles profiles = AgentModeling.profiles.get();
+		if (profiles == null) {
+			throw new IllegalStateException("No agent profiles loaded, "
+					+ "AgentModeling.instantiate() has to be called first");
+		}
+		int profile = agent.getId() - 1;
+		if (profile >= profiles.size()) {
+			throw new IllegalStateException("No profile for agent "
+					+ agent.getId() + ", only " + profiles.size()
+					+ " profiles loaded");
+		}
+		for (int entry = profiles.getStart(profile); entry < profiles
+				.getEnd(profile); entry++) {
+			int skillId = profiles.getSkillId(entry);
+			Skill skill = skills.getSkill(skillId);
+			AgentInternals builtAgentInternals = new AgentInternals(skill,
+					calculateExperience(profiles.getWorkDone(entry),
+							profiles.getMaximum(skillId)));
+			agent.addSkill(skill.getName(), builtAgentInternals);
 		}
 	}
 
@@ -0,0 +1,129 @@
+package github;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+import au.com.bytecode.opencsv.CSVReader;
+import collaboration.Skill;
+import collaboration.Skills;
+
+/**
+ * Immutable table of modelled GitHub users, read from results.csv in a
+ * single pass. Profile i (the i-th distinct user in the file) owns entries
+ * from offsets[i] to offsets[i + 1], every entry being a pair of
+ * Skill.getSkillId() and work done in that language. Maximal work done per
+ * skill is gathered during the same pass.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+final class AgentProfiles {
+
+	private final int[] offsets;
+	private final int[] skillIds;
+	private final int[] workDone;
+	private final int[] maximums;
+
+	private AgentProfiles(int[] offsets, int[] skillIds, int[] workDone,
+			int[] maximums) {
+		this.offsets = offsets;
+		this.skillIds = skillIds;
+		this.workDone = workDone;
+		this.maximums = maximums;
+	}
+
+	/**
+	 * Parses a semicolon separated file of (user id, login, language, work
+	 * done) rows, where rows of a single user are adjacent
+	 */
+	static AgentProfiles parse(String filename, Skills skills)
+			throws IOException {
+		int[] offsets = new int[1024];
+		int[] skillIds = new int[4096];
+		int[] workDone = new int[4096];
+		int[] maximums = new int[skills.getSkillIdBound()];
+		int profiles = 0;
+		int entries = 0;
+
+		CSVReader reader = new CSVReader(new FileReader(filename), ';', '\"');
+		try {
+			String[] nextLine;
+			String previousId = null;
+			while ((nextLine = reader.readNext()) != null) {
+				String id = nextLine[0];
+				Skill skill = skills.getSkill(nextLine[2]);
+				assert skill != null;
+				int skillId = skill.getSkillId();
+				int work = Integer.parseInt(nextLine[3]);
+				if (maximums[skillId] < work) {
+					maximums[skillId] = work;
+				}
+				if (!id.equals(previousId)) {
+					// new user starts here
+					if (profiles + 1 >= offsets.length) {
+						offsets = Arrays.copyOf(offsets, offsets.length * 2);
+					}
+					offsets[profiles++] = entries;
+					previousId = id;
+				}
+				int existing = find(skillIds, offsets[profiles - 1], entries,
+						skillId);
+				if (existing >= 0) {
+					// same language listed twice, the last row wins
+					workDone[existing] = work;
+					continue;
+				}
+				if (entries == skillIds.length) {
+					skillIds = Arrays.copyOf(skillIds, entries * 2);
+					workDone = Arrays.copyOf(workDone, entries * 2);
+				}
+				skillIds[entries] = skillId;
+				workDone[entries] = work;
+				entries++;
+			}
+		} finally {
+			reader.close();
+		}
+		offsets[profiles] = entries;
+
+		return new AgentProfiles(Arrays.copyOf(offsets, profiles + 1),
+				Arrays.copyOf(skillIds, entries),
+				Arrays.copyOf(workDone, entries), maximums);
+	}
+
+	private static int find(int[] skillIds, int from, int to, int skillId) {
+		for (int i = from; i < to; i++) {
+			if (skillIds[i] == skillId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	int size() {
+		return offsets.length - 1;
+	}
+
+	int getStart(int profile) {
+		return offsets[profile];
+	}
+
+	int getEnd(int profile) {
+		return offsets[profile + 1];
+	}
+
+	int getSkillId(int entry) {
+		return skillIds[entry];
+	}
+
+	int getWorkDone(int entry) {
+		return workDone[entry];
+	}
+
+	int getMaximum(int skillId) {
+		return maximums[skillId];
+	}
+
+}
@@ -8,14 +8,24 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
+import logger.Metrics;
+import logger.SimulationLogger;
+
 import org.apache.commons.lang3.SystemUtils;
 
+import collaboration.RunLocal;
+import collaboration.SimulationRun;
+import collaboration.Skills;
 import collaboration.Task;
 
 public class MyDatabaseConnector {
 
-	private static Connection connection = null;
-	private static ResultSet resultSet = null;
+	/**
+	 * Every run reads the workload through his own connection
+	 */
+	private static final RunLocal<Connection> connection = new RunLocal<Connection>();
+	private static final RunLocal<ResultSet> resultSet = new RunLocal<ResultSet>();
+	private static final RunLocal<TaskFeed> taskFeed = new RunLocal<TaskFeed>();
 	private static String filename = "workload.db";
 	private static String filepath = SystemUtils.IS_OS_LINUX ? "data/"
 			: "data\\";
@@ -25,19 +35,19 @@ public class MyDatabaseConnector {
 		try {
 			Class.forName("org.sqlite.JDBC");
 			String connectionString = "jdbc:sqlite:" + filepath + filename;
-			connection = DriverManager.getConnection(connectionString);
-			resultSet = createResultSet();
-			assert resultSet.first();
+			connection.set(DriverManager.getConnection(connectionString));
+			resultSet.set(createResultSet());
+			assert resultSet.get().first();
 		} catch (Exception e) {
-			System.err.println(e.getClass().getName() + ": " + e.getMessage());
+			SimulationLogger.DATA.error(e.getClass().getName() + ": " + e.getMessage());
 			return false;
 		}
-		System.out.println("Opened [sqlite] database successfully");
+		SimulationLogger.DATA.info("Opened [sqlite] database successfully");
 		return success;
 	}
 
 	private static ResultSet createResultSet() throws SQLException {
-		PreparedStatement statement = connection
+		PreparedStatement statement = connection.get()
 				.prepareStatement(
 						"select time, taskid, language, sum(workdone), "
 								+ "sum(workrequired) from workload where taskid in"
@@ -54,37 +64,130 @@ public class MyDatabaseConnector {
 		return statement.executeQuery();
 	}
 
+	/**
+	 * Returns next count tasks from the workload, taken from the prefetch
+	 * queue when startPrefetch() was called, otherwise read right away.
+	 * Tasks are counted in statistics of skills only here, on the simulation
+	 * thread, not when the producer decodes them.
+	 */
 	public static List<Task> get(int count) throws SQLException {
+		long start = Metrics.start();
 		List<Task> result = new ArrayList<Task>();
+		TaskFeed feed = taskFeed.get();
+		Skills skills = (Skills) SimulationRun.current().getSkills();
 		for (int i = 0; i < count; i++) {
-			
-			Entry entry = new Entry(resultSet.getString(2), resultSet.getString(3),
-					resultSet.getInt(4), resultSet.getInt(5));
-			//results.add(entry);
-			Task task = new Task();
-			System.out.println("Creating [Task] " + task.getId());
-			TaskReconstruction.giveWork(task,
-					entry.getSkillName(),
-					entry.getWorkDone(),
-					entry.getWorkLeft());
-
-			while (resultSet.next()) {
-				Entry nextEntry = new Entry(resultSet.getString(2), resultSet.getString(3),
-						resultSet.getInt(4), resultSet.getInt(5));
-				if (nextEntry.getRepoId().equals(entry.getRepoId())) {
-					TaskReconstruction.giveWork(task, nextEntry.getSkillName(),
-							nextEntry.getWorkDone(), nextEntry.getWorkLeft());
-				} else {
-					break;
-				}
-			}
-
+			Task task = feed != null ? feed.take() : readTask();
+			skills.addTaskInternals(task);
 			result.add(task);
 		}
 		assert count == result.size();
+		Metrics.get().fetch().recordSince(start);
+		Metrics.get().fetched().add(count);
 		return result;
 	}
 
+	/**
+	 * Decodes rows of a single task, the resultset is grouped by task
+	 */
+	static Task readTask() throws SQLException {
+		ResultSet resultSet = MyDatabaseConnector.resultSet.get();
+		synchronized (resultSet) {
+			return readTask(resultSet);
+		}
+	}
+
+	private static Task readTask(ResultSet resultSet) throws SQLException {
+		Entry entry = new Entry(resultSet.getString(2), resultSet.getString(3),
+				resultSet.getInt(4), resultSet.getInt(5));
+		//results.add(entry);
+		Task task = new Task();
+		if (SimulationLogger.DATA.isDebug()) {
+			SimulationLogger.DATA.debug("Creating [Task] " + task.getId());
+		}
+		TaskReconstruction.giveWork(task,
+				entry.getSkillName(),
+				entry.getWorkDone(),
+				entry.getWorkLeft());
+
+		while (resultSet.next()) {
+			Entry nextEntry = new Entry(resultSet.getString(2), resultSet.getString(3),
+					resultSet.getInt(4), resultSet.getInt(5));
+			if (nextEntry.getRepoId().equals(entry.getRepoId())) {
+				TaskReconstruction.giveWork(task, nextEntry.getSkillName(),
+						nextEntry.getWorkDone(), nextEntry.getWorkLeft());
+			} else {
+				break;
+			}
+		}
+		return task;
+	}
+
+	/**
+	 * Starts a background thread which reads tasks ahead into a bounded
+	 * queue, must be called after the first tasks were read with get()
+	 * 
+	 * @param capacity - how many tasks are read ahead at most
+	 */
+	public static void startPrefetch(int capacity) {
+		stopPrefetch();
+		TaskFeed feed = new TaskFeed(capacity);
+		taskFeed.set(feed);
+		feed.start();
+		SimulationLogger.DATA.info("[Task feed] prefetching up to " + capacity
+				+ " tasks");
+	}
+
+	public static void stopPrefetch() {
+		TaskFeed feed = taskFeed.get();
+		if (feed != null) {
+			feed.stop();
+			taskFeed.set(null);
+		}
+	}
+
+	/**
+	 * Stops the prefetch and closes the connection of the current run
+	 */
+	public static void close() {
+		stopPrefetch();
+		Connection current = connection.get();
+		if (current != null) {
+			try {
+				current.close();
+			} catch (SQLException e) {
+				SimulationLogger.DATA.warn("Error closing [sqlite] database: "
+						+ e.getMessage());
+			}
+			connection.set(null);
+			resultSet.set(null);
+		}
+	}
+
+	/**
+	 * @return number of tasks ready in the prefetch queue
+	 */
+	public static int getQueueDepth() {
+		TaskFeed feed = taskFeed.get();
+		return feed != null ? feed.getQueueDepth() : 0;
+	}
+
+	/**
+	 * @return total time the simulation waited for the prefetch queue, in
+	 *         milliseconds
+	 */
+	public static double getStallTime() {
+		TaskFeed feed = taskFeed.get();
+		return feed != null ? feed.getStallNanos() / 1e6 : 0d;
+	}
+
+	/**
+	 * @return how many times the simulation found the prefetch queue empty
+	 */
+	public static long getStallCount() {
+		TaskFeed feed = taskFeed.get();
+		return feed != null ? feed.getStalls() : 0L;
+	}
+
 }
 
 class Entry{
@@ -0,0 +1,120 @@
+package github;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import logger.SimulationLogger;
+import collaboration.SimulationRun;
+import collaboration.Task;
+
+/**
+ * Background reader of the workload database. A single producer thread
+ * decodes rows into ready Task objects and keeps a bounded queue full, so
+ * the simulation thread only takes tasks out of the queue. Tasks are still
+ * created in the order of rows, hence their identifiers are the same as
+ * with reading on demand.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class TaskFeed implements Runnable {
+
+	private static final long POLL_MILLIS = 10;
+
+	private final BlockingQueue<Task> queue;
+	private final Thread thread;
+	/**
+	 * Run the tasks are read for, the producer thread works on it
+	 */
+	private final SimulationRun run;
+	private volatile SQLException failure = null;
+
+	private long stallNanos = 0;
+	private long stalls = 0;
+
+	TaskFeed(int capacity) {
+		this.queue = new ArrayBlockingQueue<Task>(capacity);
+		this.run = SimulationRun.current();
+		this.thread = new Thread(this, "task-feed");
+		this.thread.setDaemon(true);
+	}
+
+	void start() {
+		thread.start();
+	}
+
+	/**
+	 * Stops the producer, waits until it finishes the task it was decoding
+	 */
+	void stop() {
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void run() {
+		run.bind();
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				queue.put(MyDatabaseConnector.readTask());
+			}
+		} catch (SQLException e) {
+			// most likely the resultset is exhausted, consumer will get
+			// this exception after the queue is drained
+			SimulationLogger.DATA.info("[Task feed] stopped reading: "
+					+ e.getMessage());
+			failure = e;
+		} catch (InterruptedException e) {
+			// stopped by the simulation
+		}
+	}
+
+	/**
+	 * Takes next task, waits if the producer didn't keep up
+	 * 
+	 * @throws SQLException
+	 *             when the producer failed and the queue is empty
+	 */
+	Task take() throws SQLException {
+		Task task = queue.poll();
+		if (task != null) {
+			return task;
+		}
+		long start = System.nanoTime();
+		try {
+			while (task == null) {
+				if ((failure != null) && queue.isEmpty()) {
+					throw failure;
+				}
+				task = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for [Task feed]", e);
+		} finally {
+			stallNanos += System.nanoTime() - start;
+			stalls++;
+		}
+		return task;
+	}
+
+	int getQueueDepth() {
+		return queue.size();
+	}
+
+	long getStallNanos() {
+		return stallNanos;
+	}
+
+	long getStalls() {
+		return stalls;
+	}
+
+}
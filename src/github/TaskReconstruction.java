@@ -1,6 +1,7 @@
 package github;
 
-import collaboration.CollaborationBuilder;
+import logger.SimulationLogger;
+import collaboration.SimulationRun;
 import collaboration.Skill;
 import collaboration.Skills;
 import collaboration.Task;
@@ -12,7 +13,7 @@ public class TaskReconstruction {
 	public static void giveWork(Task task, String skillName,
 			Integer workDoneInt, Integer workRequiredInt) {
 		try {
-			Skill skill = ((Skills) CollaborationBuilder.skills).getSkill(skillName);
+			Skill skill = ((Skills) SimulationRun.current().getSkills()).getSkill(skillName);
 			
 			assert skill != null;
 
@@ -25,8 +26,8 @@ public class TaskReconstruction {
 					workRequired, workDone, task);
 			task.addSkill(skill.getName(), taskInternals);
 		} catch (NullPointerException nexc) {
-			System.out.println("Problematic [Skill] name: " + skillName);
-			System.out.println("Please verify it is present in all-languages.csv");
+			SimulationLogger.DATA.error("Problematic [Skill] name: " + skillName
+					+ ", please verify it is present in all-languages.csv");
 			throw nexc;
 		}
 	}
@@ -0,0 +1,176 @@
+package intelligence;
+
+import java.util.Map;
+
+import strategies.Strategy.TaskChoice;
+
+/**
+ * Sliding window of the last generations, every generation kept as
+ * proportions of task strategies in a primitive array. Tells how far the
+ * population is from being stable with one of the statistics:
+ * 
+ * <ul>
+ * <li>EXACT - 0 when all generations in the window have exactly the same
+ * counts of strategies, 1 otherwise</li>
+ * <li>VARIANCE - the highest variance of a strategy's proportion over the
+ * window</li>
+ * <li>CHISQUARE - chi-square statistic of the last generation against the
+ * mean of the window, computed on proportions, hence divided by population
+ * size (Pearson divergence)</li>
+ * <li>KL - the highest Kullback-Leibler divergence of a generation in the
+ * window from the mean of the window</li>
+ * </ul>
+ * 
+ * Population is stable when the statistic is not greater than the
+ * tolerance.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class ConvergenceDetector {
+
+	public enum Test {
+		EXACT, VARIANCE, CHISQUARE, KL
+	}
+
+	private static final TaskChoice[] STRATEGIES = TaskChoice.values();
+
+	private final Test test;
+	private final double tolerance;
+	private final int[][] counts;
+	private final double[][] proportions;
+	private int next = 0;
+	private int size = 0;
+
+	public ConvergenceDetector(Test test, double tolerance, int window) {
+		this.test = test;
+		this.tolerance = tolerance;
+		this.counts = new int[window][STRATEGIES.length];
+		this.proportions = new double[window][STRATEGIES.length];
+	}
+
+	public void report(Map<TaskChoice, Integer> strategySet) {
+		int[] row = counts[next];
+		int total = 0;
+		for (int s = 0; s < STRATEGIES.length; s++) {
+			Integer count = strategySet.get(STRATEGIES[s]);
+			row[s] = count == null ? 0 : count;
+			total += row[s];
+		}
+		for (int s = 0; s < STRATEGIES.length; s++) {
+			proportions[next][s] = total == 0 ? 0 : (double) row[s] / total;
+		}
+		next = (next + 1) % counts.length;
+		size = Math.min(size + 1, counts.length);
+	}
+
+	public void clear() {
+		next = 0;
+		size = 0;
+	}
+
+	public boolean isFull() {
+		return size == counts.length;
+	}
+
+	public Test getTest() {
+		return test;
+	}
+
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	public boolean isStable(double statistic) {
+		return statistic <= tolerance;
+	}
+
+	/**
+	 * @return statistic of the generations in the window
+	 */
+	public double statistic() {
+		if (size == 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		switch (test) {
+		case EXACT:
+			return exact();
+		case CHISQUARE:
+			return chiSquare();
+		case KL:
+			return kullbackLeibler();
+		default:
+			return variance();
+		}
+	}
+
+	private double exact() {
+		for (int g = 1; g < size; g++) {
+			for (int s = 0; s < STRATEGIES.length; s++) {
+				if (counts[g][s] != counts[0][s]) {
+					return 1;
+				}
+			}
+		}
+		return 0;
+	}
+
+	private double[] mean() {
+		double[] mean = new double[STRATEGIES.length];
+		for (int g = 0; g < size; g++) {
+			for (int s = 0; s < STRATEGIES.length; s++) {
+				mean[s] += proportions[g][s];
+			}
+		}
+		for (int s = 0; s < STRATEGIES.length; s++) {
+			mean[s] /= size;
+		}
+		return mean;
+	}
+
+	private double variance() {
+		double[] mean = mean();
+		double max = 0;
+		for (int s = 0; s < STRATEGIES.length; s++) {
+			double sum = 0;
+			for (int g = 0; g < size; g++) {
+				double diff = proportions[g][s] - mean[s];
+				sum += diff * diff;
+			}
+			max = Math.max(max, sum / size);
+		}
+		return max;
+	}
+
+	private double chiSquare() {
+		double[] mean = mean();
+		double[] last = proportions[(next - 1 + counts.length) % counts.length];
+		double sum = 0;
+		for (int s = 0; s < STRATEGIES.length; s++) {
+			if (mean[s] > 0) {
+				double diff = last[s] - mean[s];
+				sum += diff * diff / mean[s];
+			}
+		}
+		return sum;
+	}
+
+	private double kullbackLeibler() {
+		double[] mean = mean();
+		double max = 0;
+		for (int g = 0; g < size; g++) {
+			double divergence = 0;
+			for (int s = 0; s < STRATEGIES.length; s++) {
+				double p = proportions[g][s];
+				// mean[s] > 0 whenever p > 0
+				if (p > 0) {
+					divergence += p * Math.log(p / mean[s]);
+				}
+			}
+			max = Math.max(max, divergence);
+		}
+		return max;
+	}
+
+}
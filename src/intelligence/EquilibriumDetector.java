@@ -1,11 +1,11 @@
 package intelligence;
 
-import java.util.Iterator;
 import java.util.Map;
 
+import logger.SimulationLogger;
 import strategies.Strategy.TaskChoice;
-import utils.ObjectsHelper;
 import collaboration.GameController;
+import collaboration.RunLocal;
 import collaboration.SimulationAdvancedParameters;
 
 /**
@@ -16,54 +16,59 @@ import collaboration.SimulationAdvancedParameters;
  */
 public class EquilibriumDetector {
 
-	public static CircularFifoQueue<Map<TaskChoice, Integer>> possiblyStableSet;
+	private static final RunLocal<ConvergenceDetector> detectors = new RunLocal<ConvergenceDetector>();
 
 	public static void init() {
-		possiblyStableSet = new CircularFifoQueue<Map<TaskChoice, Integer>>(
-				SimulationAdvancedParameters.equilibriumDetectionSensitivity);
+		detectors.set(new ConvergenceDetector(ConvergenceDetector.Test
+				.valueOf(SimulationAdvancedParameters.equilibriumTest
+						.toUpperCase()),
+				SimulationAdvancedParameters.equilibriumTolerance,
+				SimulationAdvancedParameters.equilibriumDetectionSensitivity));
 	}
 	
 	public static void clear(){
-		if (possiblyStableSet != null)
-			possiblyStableSet.clear();
+		if (detectors.get() != null)
+			detectors.get().clear();
 	}
 
 	public static void report(Map<TaskChoice, Integer> newRecord) {
-		possiblyStableSet.add(newRecord);
+		detectors.get().report(newRecord);
 	}
 
 	/**
-	 * Method returns true if there are N=possiblyStableSet.size() recent generation
-	 * having exactly same set of strategies, returns false when they are different or
-	 * it's to early to evaluate
+	 * Method returns true if N=equilibriumDetectionSensitivity recent
+	 * generations have a stable set of strategies (within tolerance of the
+	 * chosen statistic), returns false when they differ or it's to early to
+	 * evaluate
 	 * 
 	 * @param gameController
 	 * @return
 	 */
 	public static boolean evaluate(GameController gameController) {
-		boolean result = true;
+		ConvergenceDetector detector = detectors.get();
+		// the only reasonable moment to evaluate stop problem
+		// is before starting a new generation
 		if (gameController.getCurrentIteration() < 1){
-			// the only reasonable moment to evaluate stop problem
-			// is before starting a new generation
-			if (possiblyStableSet.isAtFullCapacity()){
-				// further more, wait for equilibriumDetectionSensitivity
-				// (minimum number of past generation to start an evaluation)
-				Iterator<Map<TaskChoice, Integer>> iterator = possiblyStableSet.iterator();
-				Map<TaskChoice, Integer> previous = null;
-				while (iterator.hasNext()){
-					Map<TaskChoice, Integer> current = iterator.next();
-					if (! ObjectsHelper.isSecondEqual(current, previous)){
-						return false;
-					}
-					previous = current;
+			// further more, wait for equilibriumDetectionSensitivity
+			// (minimum number of past generation to start an evaluation)
+			if (detector.isFull()){
+				double statistic = detector.statistic();
+				boolean stable = detector.isStable(statistic);
+				if (stable) {
+					SimulationLogger.EVOLUTION.info("[Equilibrium] detected in generation "
+							+ gameController.getCurrentGeneration() + ", "
+							+ detector.getTest() + " statistic " + statistic
+							+ " <= " + detector.getTolerance());
+				} else if (SimulationLogger.EVOLUTION.isDebug()) {
+					SimulationLogger.EVOLUTION.debug("[Equilibrium] not yet in generation "
+							+ gameController.getCurrentGeneration() + ", "
+							+ detector.getTest() + " statistic " + statistic
+							+ " > " + detector.getTolerance());
 				}
-			} else {
-				result = false;
+				return stable;
 			}
-		} else{
-			result = false;
 		}
-		return result;
+		return false;
 	}
 
 }
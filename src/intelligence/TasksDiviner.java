@@ -2,17 +2,19 @@ package intelligence;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import logger.Metrics;
 import strategies.Strategy;
 import tasks.CentralAssignment;
 import tasks.HeterophylyExpBased;
 import tasks.HomophylyExpBased;
 import tasks.Preferential;
+import utils.RandomStreams;
 import collaboration.Agent;
 import collaboration.Task;
+import collaboration.Tasks;
 
 /***
  * Class chooses which math modules to execute
@@ -23,11 +25,12 @@ import collaboration.Task;
  */
 public class TasksDiviner {
 
-	public static synchronized Task chooseTask(Agent agent,
+	public static Task chooseTask(Agent agent,
 			Strategy.TaskChoice strategy, Map<String, Task> tasks) {
 
 		Task chosen = null;
 		assert strategy != null;
+		long start = Metrics.start();
 
 		switch (strategy) {
 		case HOMOPHYLY:
@@ -43,21 +46,7 @@ public class TasksDiviner {
 			chosen = preferential.concludeMath(agent);
 			break;
 		case RANDOM:
-			List<Task> internalRandomList;
-			Collection<Task> coll = tasks.values();
-			if (coll instanceof List)
-				internalRandomList = (List<Task>) coll;
-			else
-				internalRandomList = new ArrayList<Task>(coll);
-			Collections.shuffle(internalRandomList);
-			for (Task singleTaskFromPool : internalRandomList) {
-				if (singleTaskFromPool.getTaskInternals().size() > 0)
-					if (singleTaskFromPool.getGeneralAdvance() < 1.) {
-						chosen = singleTaskFromPool;
-						break;
-					}
-			}
-
+			chosen = chooseRandomTask(agent, tasks);
 			break;
 		case CENTRAL:
 			CentralAssignment centralAssignment = new CentralAssignment();
@@ -78,25 +67,40 @@ public class TasksDiviner {
 					+ agent.getStrategy() + " by " + strategy
 					+ " but didn't found any task to work on.");*/
 			// Choosing any task left
-			List<Task> internalRandomList;
-			Collection<Task> coll = tasks.values();
-			if (coll instanceof List)
-				internalRandomList = (List<Task>) coll;
-			else
-				internalRandomList = new ArrayList<Task>(coll);
-			Collections.shuffle(internalRandomList);
-			for (Task singleTaskFromPool : internalRandomList) {
-				if (singleTaskFromPool.getTaskInternals().size() > 0)
-					if (singleTaskFromPool.getGeneralAdvance() < 1.) {
-						chosen = singleTaskFromPool;
-						break;
-					}
-			}
+			chosen = chooseRandomTask(agent, tasks);
 			// assert chosen != null;
 			//System.out.println("Tick" + agent.getIteration());
 			//System.out.println("WARNING - No task has been choosen!");
 
 		}
+		Metrics.get().diviner(strategy).recordSince(start);
+		return chosen;
+	}
+
+	/**
+	 * Random task which is still open, for the run's registry of tasks it is
+	 * a single draw from the set of open tasks kept by Tasks
+	 */
+	private static Task chooseRandomTask(Agent agent, Map<String, Task> tasks) {
+		Tasks pool = Tasks.indexing(tasks);
+		if (pool != null) {
+			return pool.getRandomOpenTask(agent);
+		}
+		Task chosen = null;
+		List<Task> internalRandomList;
+		Collection<Task> coll = tasks.values();
+		if (coll instanceof List)
+			internalRandomList = (List<Task>) coll;
+		else
+			internalRandomList = new ArrayList<Task>(coll);
+		RandomStreams.shuffle(internalRandomList, agent);
+		for (Task singleTaskFromPool : internalRandomList) {
+			if (singleTaskFromPool.getTaskInternals().size() > 0)
+				if (singleTaskFromPool.getGeneralAdvance() < 1.) {
+					chosen = singleTaskFromPool;
+					break;
+				}
+		}
 		return chosen;
 	}
 
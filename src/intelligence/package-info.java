@@ -7,6 +7,7 @@
  * ImpactFactor.java - one of evaluations in "task focused" factor
  * AgentComparator.java - compares agents by utility
  * EquilibriumDetector.java - tells simulator when to stop a run
+ * ConvergenceDetector.java - statistics of strategies in recent generations
  */
 /**
  * @author Oskar Jarczyk
@@ -4,19 +4,21 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
+import collaboration.RunLocal;
+
 public enum AgentCount {
 	
 	INSTANCE;
 	
 	private Set<Integer> counts = new HashSet<Integer>();
-	private Integer chosen;
+	private final RunLocal<Integer> chosen = new RunLocal<Integer>();
 
 	public Integer getChosen() {
-		return chosen;
+		return chosen.get();
 	}
 
 	public void setChosen(Integer chosen) {
-		this.chosen = chosen;
+		this.chosen.set(chosen);
 	}
 
 	public void addCount(Integer count){
@@ -0,0 +1,61 @@
+package load;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import utils.EvolutionOperator;
+import collaboration.RunLocal;
+
+public enum EvolutionOperatorSet {
+
+	INSTANCE;
+
+	private Set<EvolutionOperator.Selection> operators = new HashSet<EvolutionOperator.Selection>();
+	private final RunLocal<EvolutionOperator.Selection> chosen = new RunLocal<EvolutionOperator.Selection>();
+
+	public void setChosen(EvolutionOperator.Selection selection) {
+		chosen.set(selection);
+	}
+
+	/**
+	 * @return chosen operator, SUS when the scenario doesn't say
+	 */
+	public EvolutionOperator.Selection getChosen() {
+		EvolutionOperator.Selection selection = chosen.get();
+		return selection == null ? EvolutionOperator.Selection.SUS
+				: selection;
+	}
+
+	public void addOperator(EvolutionOperator.Selection selection) {
+		operators.add(selection);
+	}
+
+	public Set<EvolutionOperator.Selection> getOperators() {
+		return operators;
+	}
+
+	public void setOperators(Set<EvolutionOperator.Selection> operators) {
+		this.operators = operators;
+	}
+
+	public int size() {
+		return operators.size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder returnString = new StringBuilder();
+		for (Iterator<EvolutionOperator.Selection> iterator = operators
+				.iterator(); iterator.hasNext();) {
+			returnString.append(iterator.next().name());
+			returnString.append(" ");
+		}
+		return returnString.toString().trim();
+	}
+
+	public boolean isEmpty() {
+		return operators.isEmpty();
+	}
+
+}
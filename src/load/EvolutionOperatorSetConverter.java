@@ -0,0 +1,45 @@
+package load;
+
+import java.util.StringTokenizer;
+
+import repast.simphony.parameter.StringConverter;
+import utils.EvolutionOperator;
+
+public class EvolutionOperatorSetConverter implements
+		StringConverter<EvolutionOperatorSet> {
+
+	/**
+	 * Converts the specified object to a String representation and returns that
+	 * representation. The representation should be such that
+	 * <code>fromString</code> can recreate the Object.
+	 * 
+	 * @param obj
+	 *            the Object to convert.
+	 * @return a String representation of the Object.
+	 */
+	public String toString(EvolutionOperatorSet obj) {
+		return obj.toString();
+	}
+
+	/**
+	 * Creates an Object from a String representation.
+	 * 
+	 * @param strRep
+	 *            the string representation, null or empty when the scenario
+	 *            has no such parameter - no operators, SUS is used then
+	 * @return the created Object.
+	 */
+	public EvolutionOperatorSet fromString(String strRep) {
+		if (strRep == null) {
+			return EvolutionOperatorSet.INSTANCE;
+		}
+		StringTokenizer st = new StringTokenizer(strRep, " ");
+		while (st.hasMoreElements()) {
+			String element = (String) st.nextElement();
+			EvolutionOperatorSet.INSTANCE.addOperator(EvolutionOperator.Selection
+					.valueOf(element.toUpperCase()));
+		}
+		return EvolutionOperatorSet.INSTANCE;
+	}
+
+}
@@ -4,19 +4,21 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
+import collaboration.RunLocal;
+
 public enum ExpDecayOption {
 	
 	INSTANCE;
 	
 	private Set<Boolean> options = new HashSet<Boolean>();
-	private Boolean chosen;
+	private final RunLocal<Boolean> chosen = new RunLocal<Boolean>();
 
 	public Boolean getChosen() {
-		return chosen;
+		return chosen.get();
 	}
 
 	public void setChosen(Boolean chosen) {
-		this.chosen = chosen;
+		this.chosen.set(chosen);
 	}
 
 	public void addOption(Boolean option){
@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
+import collaboration.RunLocal;
 import collaboration.Utility.UtilityType;
 
 public enum FunctionSet {
@@ -11,14 +12,14 @@ public enum FunctionSet {
 	INSTANCE;
 
 	private Set<UtilityType> functions = new HashSet<UtilityType>();
-	private UtilityType chosen;
+	private final RunLocal<UtilityType> chosen = new RunLocal<UtilityType>();
 
 	public void setChosen(UtilityType utilityType) {
-		chosen = utilityType;
+		chosen.set(utilityType);
 	}
 
 	public UtilityType getChosen() {
-		return chosen;
+		return chosen.get();
 	}
 
 	public void addFunction(UtilityType utilityType) {
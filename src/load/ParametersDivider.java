@@ -6,15 +6,13 @@ import java.util.List;
 
 import strategies.Strategy;
 import utils.Combinatorics;
+import utils.EvolutionOperator;
 import collaboration.Utility.UtilityType;
 
-import com.google.common.collect.Iterables;
-
 public class ParametersDivider {
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private static <T> Collection<List<T>> getSettings() {
-		List parameters = new ArrayList();
+	private static Combinatorics.Product<Object> getSettings() {
+		List<Collection<?>> parameters = new ArrayList<Collection<?>>();
 		if (!AgentCount.INSTANCE.isEmpty())
 			parameters.add(AgentCount.INSTANCE.getCounts());
 		if (!GenerationLength.INSTANCE.isEmpty())
@@ -36,19 +34,30 @@ public class ParametersDivider {
 			parameters.add(ParametrizedSigmoidOption.INSTANCE.getOptions());
 		if (!SigmoidParameter.INSTANCE.isEmpty())
 			parameters.add(SigmoidParameter.INSTANCE.getParameters());
+		if (!EvolutionOperatorSet.INSTANCE.isEmpty())
+			parameters.add(EvolutionOperatorSet.INSTANCE.getOperators());
 		
-		return Combinatorics.permutations(parameters);
+		return Combinatorics.product(parameters);
 	}
 	
 	public static Integer countSettings(){
 		return getSettings().size();
 	}
 	
+	/**
+	 * Runs are divided into equal consecutive blocks, one block for every
+	 * setting, the block of currentRun is decoded straight into its setting
+	 */
 	public static void findMatch(int currentRun, int allRunCount){
-		double step = Math.ceil(allRunCount / countSettings());
-		for(int i = 0 ; i < countSettings() ; i++){
-			if ((currentRun > i * step) && (currentRun <= (i+1)*step)){
-				List<Object> optionsSet = Iterables.get(getSettings(), i);
+		Combinatorics.Product<Object> settings = getSettings();
+		if (settings.isEmpty()) {
+			return;
+		}
+		int step = allRunCount / settings.size();
+		if (step > 0 && currentRun > 0) {
+			int i = (currentRun - 1) / step;
+			if (i < settings.size()) {
+				List<Object> optionsSet = settings.get(i);
 				AgentCount.INSTANCE.setChosen((Integer) optionsSet.get(0));
 				GenerationLength.INSTANCE.setChosen((Integer) optionsSet.get(1));
 				ExpDecayOption.INSTANCE.setChosen((Boolean) optionsSet.get(2));
@@ -59,7 +68,8 @@ public class ParametersDivider {
 				TaskCount.INSTANCE.setChosen((Integer) optionsSet.get(7));
 				ParametrizedSigmoidOption.INSTANCE.setChosen((Boolean) optionsSet.get(8));
 				SigmoidParameter.INSTANCE.setChosen((Integer) optionsSet.get(9));
-				break;
+				if (optionsSet.size() > 10)
+					EvolutionOperatorSet.INSTANCE.setChosen((EvolutionOperator.Selection) optionsSet.get(10));
 			}
 		}
 	}
@@ -2,12 +2,17 @@ package load;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import utils.Combinatorics;
 import collaboration.Utility.UtilityType;
 
 public class ParametersDividerTest {
@@ -62,6 +67,23 @@ public class ParametersDividerTest {
 				ParametersDivider.countSettings());
 	}
 	
+	@Test
+	public void testProductDecoding() {
+		List<Collection<Object>> dimensions = Arrays.<Collection<Object>> asList(
+				Arrays.<Object> asList("a", "b", "c"),
+				Arrays.<Object> asList(1, 2), Arrays.<Object> asList(true));
+		Combinatorics.Product<Object> product = Combinatorics
+				.product(dimensions);
+		assertEquals(6, product.size());
+		assertEquals(Arrays.<Object> asList("a", 1, true), product.get(0));
+		assertEquals(Arrays.<Object> asList("b", 2, true), product.get(3));
+		Iterator<List<Object>> iterator = product.iterator();
+		for (int i = 0; i < product.size(); i++) {
+			assertEquals(product.get(i), iterator.next());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
 	@Test
 	public void testForExactValues(){
 		ParametersDivider.findMatch(1, 800);
@@ -3,12 +3,14 @@ package load;
 import java.util.HashSet;
 import java.util.Set;
 
+import collaboration.RunLocal;
+
 public enum ParametrizedSigmoidOption {
 	
 	INSTANCE;
 	
 	private Set<Boolean> options = new HashSet<Boolean>();
-	private Boolean chosen;
+	private final RunLocal<Boolean> chosen = new RunLocal<Boolean>();
 	
 	public boolean isEmpty() {
 		return options.isEmpty();
@@ -23,11 +25,11 @@ public enum ParametrizedSigmoidOption {
 	}
 	
 	public void setChosen(Boolean chosen) {
-		this.chosen = chosen;
+		this.chosen.set(chosen);
 	}
 	
 	public Boolean getChosen() {
-		return this.chosen;
+		return chosen.get();
 	}
 
 }
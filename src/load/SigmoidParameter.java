@@ -3,12 +3,14 @@ package load;
 import java.util.HashSet;
 import java.util.Set;
 
+import collaboration.RunLocal;
+
 public enum SigmoidParameter {
 	
 	INSTANCE;
 	
 	private Set<Integer> parameters = new HashSet<Integer>();
-	private Integer chosen;
+	private final RunLocal<Integer> chosen = new RunLocal<Integer>();
 	
 	public boolean isEmpty() {
 		return parameters.isEmpty();
@@ -23,11 +25,11 @@ public enum SigmoidParameter {
 	}
 	
 	public void setChosen(Integer chosen) {
-		this.chosen = chosen;
+		this.chosen.set(chosen);
 	}
 	
 	public Integer getChosen() {
-		return this.chosen;
+		return chosen.get();
 	}
 
 }
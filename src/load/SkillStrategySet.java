@@ -5,24 +5,25 @@ import java.util.Iterator;
 import java.util.Set;
 
 import strategies.Strategy;
+import collaboration.RunLocal;
 
 public enum SkillStrategySet {
 	
 	INSTANCE;
 
 	private Set<Strategy.SkillChoice> strategies = new HashSet<Strategy.SkillChoice>();
-	private Strategy.SkillChoice chosen;
+	private final RunLocal<Strategy.SkillChoice> chosen = new RunLocal<Strategy.SkillChoice>();
 
 	public void setChosen(Strategy.SkillChoice skillChoice) {
-		chosen = skillChoice;
+		chosen.set(skillChoice);
 	}
 
 	public Strategy.SkillChoice getChosen() {
-		return chosen;
+		return chosen.get();
 	}
 	
 	public String getChosenName(){
-		return chosen.name();
+		return chosen.get().name();
 	}
 
 	public void addStrategy(Strategy.SkillChoice skillChoice) {
@@ -5,24 +5,25 @@ import java.util.Iterator;
 import java.util.Set;
 
 import strategies.Strategy;
+import collaboration.RunLocal;
 
 public enum TaskStrategySet {
 	
 	INSTANCE;
 
 	private Set<Strategy.TaskChoice> strategies = new HashSet<Strategy.TaskChoice>();
-	private Strategy.TaskChoice chosen;
+	private final RunLocal<Strategy.TaskChoice> chosen = new RunLocal<Strategy.TaskChoice>();
 
 	public void setChosen(Strategy.TaskChoice taskChoice) {
-		chosen = taskChoice;
+		chosen.set(taskChoice);
 	}
 
 	public Strategy.TaskChoice getChosen() {
-		return chosen;
+		return chosen.get();
 	}
 	
 	public String getChosenName(){
-		return chosen.name();
+		return chosen.get().name();
 	}
 
 	public void addStrategy(Strategy.TaskChoice taskChoice) {
@@ -0,0 +1,32 @@
+package logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter of events, safe to increment from many threads
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class Counter {
+
+	private final AtomicLong value = new AtomicLong();
+
+	public void increment() {
+		if (Metrics.ENABLED) {
+			value.incrementAndGet();
+		}
+	}
+
+	public void add(long delta) {
+		if (Metrics.ENABLED) {
+			value.addAndGet(delta);
+		}
+	}
+
+	public long get() {
+		return value.get();
+	}
+
+}
@@ -11,8 +11,14 @@ public class EndRunLogger {
 	
 	private static Logger logger = Logger.getLogger(EndRunLogger.class);
 	private static boolean headersBuilt = false;
+	private static boolean initialized = false;
 
-	public static void init() {
+	public static synchronized void init() {
+		if (initialized) {
+			// many runs in one JVM share one appender
+			return;
+		}
+		initialized = true;
 		// setting up a FileAppender dynamically...
 		SimpleLayout layout = new SimpleLayout();
 		FileAppender appender;
@@ -34,7 +40,7 @@ public class EndRunLogger {
 		logger.info(message);
 	}
 	
-	public static void buildHeaders(String s){
+	public static synchronized void buildHeaders(String s){
 		if (!headersBuilt){
 			finalMessage(s);
 			headersBuilt = true;
@@ -0,0 +1,111 @@
+package logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds with log-linear buckets (the idea of
+ * HdrHistogram): every power of two is split into 16 buckets, hence any
+ * recorded value is known with a relative error below 1/16, in a fixed
+ * array of counters and without allocation. Safe to record from many
+ * threads.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class Histogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int HALF = 1 << (SUB_BITS - 1);
+	private static final int BUCKETS = (64 - SUB_BITS + 1) * HALF + HALF;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records time elapsed since start, which came from Metrics.start()
+	 */
+	public void recordSince(long start) {
+		if (Metrics.ENABLED) {
+			record(System.nanoTime() - start);
+		}
+	}
+
+	public void record(long value) {
+		if (!Metrics.ENABLED) {
+			return;
+		}
+		if (value < 0) {
+			value = 0;
+		}
+		counts.incrementAndGet(index(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current;
+		while (value > (current = max.get())) {
+			if (max.compareAndSet(current, value)) {
+				break;
+			}
+		}
+	}
+
+	static int index(long value) {
+		if (value < 2 * HALF) {
+			return (int) value;
+		}
+		int exponent = (63 - Long.numberOfLeadingZeros(value))
+				- (SUB_BITS - 1);
+		return exponent * HALF + (int) (value >>> exponent);
+	}
+
+	static long lowestValue(int index) {
+		if (index < 2 * HALF) {
+			return index;
+		}
+		int exponent = index / HALF - 1;
+		return ((long) (index - exponent * HALF)) << exponent;
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) sum.get() / n;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public long getTotal() {
+		return sum.get();
+	}
+
+	/**
+	 * @param percentile
+	 *            - between 0 and 100
+	 * @return the lowest value of the bucket holding the percentile, 0 when
+	 *         nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		long n = count.get();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return lowestValue(i);
+			}
+		}
+		return max.get();
+	}
+
+}
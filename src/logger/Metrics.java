@@ -0,0 +1,297 @@
+package logger;
+
+import github.MyDatabaseConnector;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import strategies.Strategy.TaskChoice;
+import collaboration.RunLocal;
+import collaboration.SimulationAdvancedParameters;
+import collaboration.SimulationRun;
+
+/**
+ * Counters and latency histograms of a simulation run - agent steps split
+ * into choosing a task and working on it, task choice per strategy, central
+ * planning, reading the workload and tasks entering and leaving the pool.
+ * 
+ * Metrics of a run are exported through JMX (emergent-task-allocation:
+ * type=Metrics,run=...) and as a CSV file with one row per tick, written
+ * next to batch.log. Durations are in nanoseconds, histograms give count,
+ * mean, p50, p99 and max.
+ * 
+ * Call sites take Metrics.start() and pass it to Histogram.recordSince(),
+ * both do nothing when metrics are disabled in SimulationAdvancedParameters.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class Metrics {
+
+	static final boolean ENABLED = SimulationAdvancedParameters.metricsEnabled;
+
+	private static final String DOMAIN = "emergent-task-allocation";
+	private static final int FLUSH_TICKS = 100;
+
+	private static final RunLocal<Metrics> current = new RunLocal<Metrics>() {
+		@Override
+		protected Metrics initialValue() {
+			return new Metrics();
+		}
+	};
+
+	public static Metrics get() {
+		return current.get();
+	}
+
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0L;
+	}
+
+	private final Histogram[] step = perStrategy();
+	private final Histogram[] choose = perStrategy();
+	private final Histogram[] work = perStrategy();
+	private final Histogram[] diviner = perStrategy();
+	private final Histogram planning = new Histogram();
+	private final Histogram fetch = new Histogram();
+	private final Counter fetched = new Counter();
+	private final Counter arrived = new Counter();
+	private final Counter departed = new Counter();
+
+	private SimulationRun run;
+	private ObjectName name;
+	private BufferedWriter csv;
+	private int rows = 0;
+
+	private static Histogram[] perStrategy() {
+		Histogram[] result = new Histogram[TaskChoice.values().length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = new Histogram();
+		}
+		return result;
+	}
+
+	/**
+	 * Whole step of an agent
+	 */
+	public Histogram step(TaskChoice strategy) {
+		return step[strategy.ordinal()];
+	}
+
+	/**
+	 * Choice of a task by an agent, including waiting for the pool
+	 */
+	public Histogram choose(TaskChoice strategy) {
+		return choose[strategy.ordinal()];
+	}
+
+	/**
+	 * Work of an agent on the chosen task
+	 */
+	public Histogram work(TaskChoice strategy) {
+		return work[strategy.ordinal()];
+	}
+
+	/**
+	 * TasksDiviner.chooseTask per strategy
+	 */
+	public Histogram diviner(TaskChoice strategy) {
+		return diviner[strategy.ordinal()];
+	}
+
+	public Histogram planning() {
+		return planning;
+	}
+
+	/**
+	 * Reading tasks from the workload database
+	 */
+	public Histogram fetch() {
+		return fetch;
+	}
+
+	public Counter fetched() {
+		return fetched;
+	}
+
+	public Counter arrived() {
+		return arrived;
+	}
+
+	public Counter departed() {
+		return departed;
+	}
+
+	/**
+	 * Registers the JMX bean and starts the CSV file of the current run
+	 */
+	public static void open(int batchNumber, int runNumber) {
+		if (!ENABLED) {
+			return;
+		}
+		Metrics metrics = get();
+		metrics.run = SimulationRun.current();
+		try {
+			metrics.name = new ObjectName(DOMAIN + ":type=Metrics,run="
+					+ batchNumber + "-" + runNumber);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(metrics.name)) {
+				server.unregisterMBean(metrics.name);
+			}
+			server.registerMBean(new MetricsBean(metrics), metrics.name);
+		} catch (JMException e) {
+			SimulationLogger.BUILDER.warn("[Metrics] not exported to JMX: "
+					+ e.getMessage());
+			metrics.name = null;
+		}
+		if (SimulationAdvancedParameters.metricsCsv) {
+			try {
+				metrics.csv = new BufferedWriter(new FileWriter("metrics_"
+						+ batchNumber + "_" + runNumber + ".csv"));
+			} catch (IOException e) {
+				SimulationLogger.BUILDER.warn("[Metrics] no CSV file: "
+						+ e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Appends a row of the current tick to the CSV file
+	 */
+	public static void writeTick() {
+		Metrics metrics = get();
+		if (metrics.csv == null) {
+			return;
+		}
+		try {
+			Map<String, Number> snapshot = metrics.snapshot();
+			if (metrics.rows++ == 0) {
+				metrics.csv.write(join(snapshot.keySet()));
+			}
+			metrics.csv.write(join(snapshot.values()));
+			if (metrics.rows % FLUSH_TICKS == 0) {
+				metrics.csv.flush();
+			}
+		} catch (IOException e) {
+			SimulationLogger.BUILDER.warn("[Metrics] CSV writing stopped: "
+					+ e.getMessage());
+			metrics.closeCsv();
+		}
+	}
+
+	/**
+	 * Unregisters the JMX bean and closes the CSV file of the current run
+	 */
+	public static void close() {
+		Metrics metrics = get();
+		if (metrics.name != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+						metrics.name);
+			} catch (JMException e) {
+				// already gone
+			}
+			metrics.name = null;
+		}
+		metrics.closeCsv();
+	}
+
+	private void closeCsv() {
+		if (csv != null) {
+			try {
+				csv.close();
+			} catch (IOException e) {
+				// nothing more to write anyway
+			}
+			csv = null;
+		}
+	}
+
+	private static String join(Iterable<?> values) {
+		StringBuilder line = new StringBuilder();
+		for (Object value : values) {
+			if (line.length() > 0) {
+				line.append(',');
+			}
+			line.append(value);
+		}
+		return line.append('\n').toString();
+	}
+
+	/**
+	 * All metrics by name, with gauges read at the moment of the call
+	 */
+	Map<String, Number> snapshot() {
+		Map<String, Number> result = new LinkedHashMap<String, Number>();
+		// gauges of the run are read on behalf of it, e.g. from a JMX thread
+		SimulationRun previous = run != null ? run.bind() : null;
+		try {
+			result.put("tick", run != null ? run.getTick() : 0);
+			result.put("db.queue", MyDatabaseConnector.getQueueDepth());
+			result.put("db.stalls", MyDatabaseConnector.getStallCount());
+			result.put("db.stallMillis", MyDatabaseConnector.getStallTime());
+		} finally {
+			if (run != null) {
+				SimulationRun.restore(previous);
+			}
+		}
+		result.put("tasks.arrived", arrived.get());
+		result.put("tasks.departed", departed.get());
+		result.put("db.fetched", fetched.get());
+		for (TaskChoice strategy : TaskChoice.values()) {
+			String suffix = strategy.name().toLowerCase();
+			put(result, "step." + suffix, step(strategy));
+			put(result, "choose." + suffix, choose(strategy));
+			put(result, "work." + suffix, work(strategy));
+			put(result, "diviner." + suffix, diviner(strategy));
+		}
+		put(result, "planning", planning);
+		put(result, "db.fetch", fetch);
+
+		result.put("heap.used", ManagementFactory.getMemoryMXBean()
+				.getHeapMemoryUsage().getUsed());
+		long collections = 0;
+		long collectionMillis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory
+				.getGarbageCollectorMXBeans()) {
+			collections += Math.max(0, gc.getCollectionCount());
+			collectionMillis += Math.max(0, gc.getCollectionTime());
+		}
+		result.put("gc.count", collections);
+		result.put("gc.millis", collectionMillis);
+		return result;
+	}
+
+	private static void put(Map<String, Number> result, String name,
+			Histogram histogram) {
+		result.put(name + ".count", histogram.getCount());
+		result.put(name + ".mean", histogram.getMean());
+		result.put(name + ".p50", histogram.getPercentile(50));
+		result.put(name + ".p99", histogram.getPercentile(99));
+		result.put(name + ".max", histogram.getMax());
+	}
+
+	/**
+	 * For logging, e.g. at the end of a run
+	 */
+	public String describe() {
+		StringBuilder result = new StringBuilder();
+		for (Entry<String, Number> entry : snapshot().entrySet()) {
+			result.append(entry.getKey()).append('=')
+					.append(entry.getValue()).append(' ');
+		}
+		return result.toString().trim();
+	}
+
+}
@@ -0,0 +1,123 @@
+package logger;
+
+import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+
+/**
+ * Level-gated console logging for the simulation. Every subsystem has its own
+ * log4j logger (simulation.agent, simulation.task, ...), so verbose per-tick
+ * output of one subsystem can be switched on without flooding the console
+ * with the rest.
+ * 
+ * Default level is INFO when running from the GUI and WARN in batch mode.
+ * Both can be overridden with system properties, i.e.
+ * -Dsimulation.log.level=DEBUG for all subsystems, or
+ * -Dsimulation.log.agent=DEBUG for a single one.
+ * 
+ * Per-tick call sites should check isDebug() before building their message,
+ * the flag is cached here and refreshed only on configure().
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class SimulationLogger {
+
+	private static final String PREFIX = "simulation";
+	private static final String PROPERTY = "simulation.log";
+
+	/**
+	 * Repast sets the root logger to ERROR, hence the simulation tree gets its
+	 * own console appender and doesn't pass events up to root's appenders
+	 */
+	private static final Logger PARENT = createParent();
+
+	public static final SimulationLogger BUILDER = new SimulationLogger("builder");
+	public static final SimulationLogger CONTROLLER = new SimulationLogger("controller");
+	public static final SimulationLogger AGENT = new SimulationLogger("agent");
+	public static final SimulationLogger TASK = new SimulationLogger("task");
+	public static final SimulationLogger SKILL = new SimulationLogger("skill");
+	public static final SimulationLogger PLANNER = new SimulationLogger("planner");
+	public static final SimulationLogger EVOLUTION = new SimulationLogger("evolution");
+	public static final SimulationLogger DATA = new SimulationLogger("data");
+
+	private static final SimulationLogger[] ALL = { BUILDER, CONTROLLER,
+			AGENT, TASK, SKILL, PLANNER, EVOLUTION, DATA };
+
+	private final String name;
+	private final Logger logger;
+	private boolean debug;
+	private boolean info;
+
+	private SimulationLogger(String name) {
+		this.name = name;
+		this.logger = Logger.getLogger(PREFIX + "." + name);
+		applyLevel(Level.INFO);
+	}
+
+	private static Logger createParent() {
+		Logger parent = Logger.getLogger(PREFIX);
+		parent.addAppender(new ConsoleAppender(new PatternLayout(
+				"%-5p [%c{1}] %m%n"), ConsoleAppender.SYSTEM_OUT));
+		parent.setAdditivity(false);
+		return parent;
+	}
+
+	/**
+	 * Sets levels of all subsystems, should be called once per run before the
+	 * context is populated
+	 * 
+	 * @param batch
+	 *            whether the simulation runs in batch mode
+	 */
+	public static synchronized void configure(boolean batch) {
+		Level fallback = batch ? Level.WARN : Level.INFO;
+		Level common = Level.toLevel(System.getProperty(PROPERTY + ".level"),
+				fallback);
+		PARENT.setLevel(common);
+		for (SimulationLogger simulationLogger : ALL) {
+			simulationLogger.applyLevel(Level.toLevel(
+					System.getProperty(PROPERTY + "." + simulationLogger.name),
+					common));
+		}
+	}
+
+	private void applyLevel(Level level) {
+		logger.setLevel(level);
+		debug = logger.isDebugEnabled();
+		info = logger.isInfoEnabled();
+	}
+
+	public boolean isDebug() {
+		return debug;
+	}
+
+	public boolean isInfo() {
+		return info;
+	}
+
+	public void debug(String message) {
+		if (debug)
+			logger.debug(message);
+	}
+
+	public void info(String message) {
+		if (info)
+			logger.info(message);
+	}
+
+	public void warn(String message) {
+		logger.warn(message);
+	}
+
+	public void error(String message) {
+		logger.error(message);
+	}
+
+	public void error(String message, Throwable throwable) {
+		logger.error(message, throwable);
+	}
+
+}
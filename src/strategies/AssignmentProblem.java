@@ -0,0 +1,245 @@
+package strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import collaboration.Agent;
+import collaboration.Skill;
+import collaboration.Task;
+import collaboration.TaskInternals;
+
+/**
+ * Sparse agent x (task, skill) score matrix, built once per tick of central
+ * planning. Score of a pair is work left in the TaskInternals multiplied by
+ * agent's experience in its skill, only positive scores are kept as edges.
+ * 
+ * Experience is read once per agent and distinct skill, not once per every
+ * TaskInternals.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class AssignmentProblem {
+
+	private final Agent[] agents;
+	private final TaskInternals[] slots;
+
+	/**
+	 * Edges of agent i are between edgeStart[i] and edgeStart[i + 1]
+	 */
+	private final int[] edgeStart;
+	private final int[] edgeSlot;
+	private final double[] edgeScore;
+
+	/**
+	 * Slot with the highest score of every agent, zero scores included, as
+	 * chosen by the original greedy planner
+	 */
+	private final int[] bestSlot;
+	private final double maxScore;
+
+	public AssignmentProblem(Iterable<Agent> agentPool,
+			Iterable<Task> taskPool) {
+		this(agentPool, slotsOf(taskPool));
+	}
+
+	/**
+	 * Problem restricted to given slots, e.g. only those which are not
+	 * taken by standing orders
+	 */
+	public AssignmentProblem(Iterable<Agent> agentPool,
+			Collection<TaskInternals> slotPool) {
+		List<TaskInternals> slotList = new ArrayList<TaskInternals>(slotPool);
+		List<Skill> skillList = new ArrayList<Skill>();
+		Map<Skill, Integer> skillIndexes = new HashMap<Skill, Integer>();
+		List<Integer> slotSkillList = new ArrayList<Integer>();
+		for (TaskInternals taskInternal : slotList) {
+			Integer skillIndex = skillIndexes.get(taskInternal.getSkill());
+			if (skillIndex == null) {
+				skillIndex = skillList.size();
+				skillList.add(taskInternal.getSkill());
+				skillIndexes.put(taskInternal.getSkill(), skillIndex);
+			}
+			slotSkillList.add(skillIndex);
+		}
+		List<Agent> agentList = new ArrayList<Agent>();
+		for (Agent agent : agentPool) {
+			agentList.add(agent);
+		}
+
+		this.agents = agentList.toArray(new Agent[agentList.size()]);
+		this.slots = slotList.toArray(new TaskInternals[slotList.size()]);
+
+		int slotCount = slots.length;
+		double[] workLeft = new double[slotCount];
+		int[] slotSkill = new int[slotCount];
+		for (int s = 0; s < slotCount; s++) {
+			workLeft[s] = slots[s].getWorkLeft();
+			slotSkill[s] = slotSkillList.get(s);
+		}
+
+		int[] start = new int[agents.length + 1];
+		int[] edgeSlots = new int[Math.max(16, slotCount)];
+		double[] edgeScores = new double[edgeSlots.length];
+		int[] best = new int[agents.length];
+		double[] experience = new double[skillList.size()];
+		double max = 0d;
+		int edges = 0;
+		for (int i = 0; i < agents.length; i++) {
+			start[i] = edges;
+			for (int k = 0; k < experience.length; k++) {
+				experience[k] = agents[i].describeExperience(skillList.get(k),
+						true, false);
+			}
+			best[i] = -1;
+			double bestScore = 0d;
+			for (int s = 0; s < slotCount; s++) {
+				double score = workLeft[s] * experience[slotSkill[s]];
+				if ((best[i] < 0) || (score > bestScore)) {
+					best[i] = s;
+					bestScore = score;
+				}
+				if (score > 0) {
+					if (edges == edgeSlots.length) {
+						edgeSlots = Arrays.copyOf(edgeSlots, edges * 2);
+						edgeScores = Arrays.copyOf(edgeScores, edges * 2);
+					}
+					edgeSlots[edges] = s;
+					edgeScores[edges] = score;
+					edges++;
+					max = Math.max(max, score);
+				}
+			}
+		}
+		start[agents.length] = edges;
+
+		this.edgeStart = start;
+		this.edgeSlot = edgeSlots;
+		this.edgeScore = edgeScores;
+		this.bestSlot = best;
+		this.maxScore = max;
+	}
+
+	/**
+	 * Problem given by a dense matrix, scores[i][s] of agent i and slot s,
+	 * without agents and slots behind it, e.g. to compare solvers
+	 */
+	AssignmentProblem(double[][] scores, int slotCount) {
+		this.agents = new Agent[scores.length];
+		this.slots = new TaskInternals[slotCount];
+		int[] start = new int[scores.length + 1];
+		int[] edgeSlots = new int[scores.length * slotCount];
+		double[] edgeScores = new double[edgeSlots.length];
+		int[] best = new int[scores.length];
+		double max = 0d;
+		int edges = 0;
+		for (int i = 0; i < scores.length; i++) {
+			start[i] = edges;
+			best[i] = -1;
+			for (int s = 0; s < slotCount; s++) {
+				if ((best[i] < 0) || (scores[i][s] > scores[i][best[i]])) {
+					best[i] = s;
+				}
+				if (scores[i][s] > 0) {
+					edgeSlots[edges] = s;
+					edgeScores[edges] = scores[i][s];
+					edges++;
+					max = Math.max(max, scores[i][s]);
+				}
+			}
+		}
+		start[scores.length] = edges;
+
+		this.edgeStart = start;
+		this.edgeSlot = edgeSlots;
+		this.edgeScore = edgeScores;
+		this.bestSlot = best;
+		this.maxScore = max;
+	}
+
+	private static List<TaskInternals> slotsOf(Iterable<Task> taskPool) {
+		List<TaskInternals> slotList = new ArrayList<TaskInternals>();
+		for (Task task : taskPool) {
+			slotList.addAll(task.getTaskInternals().values());
+		}
+		return slotList;
+	}
+
+	public int getAgentCount() {
+		return agents.length;
+	}
+
+	public int getSlotCount() {
+		return slots.length;
+	}
+
+	public Agent getAgent(int i) {
+		return agents[i];
+	}
+
+	public TaskInternals getSlot(int s) {
+		return slots[s];
+	}
+
+	public int getEdgeStart(int i) {
+		return edgeStart[i];
+	}
+
+	public int getEdgeEnd(int i) {
+		return edgeStart[i + 1];
+	}
+
+	public int getEdgeSlot(int edge) {
+		return edgeSlot[edge];
+	}
+
+	public double getEdgeScore(int edge) {
+		return edgeScore[edge];
+	}
+
+	public int getEdgeCount() {
+		return edgeStart[agents.length];
+	}
+
+	/**
+	 * @return slot of the highest score for agent i, -1 if there are no slots
+	 */
+	public int getBestSlot(int i) {
+		return bestSlot[i];
+	}
+
+	public double getMaxScore() {
+		return maxScore;
+	}
+
+	/**
+	 * @return score of agent i working on slot s, 0 if there is no such edge
+	 */
+	public double getScore(int i, int s) {
+		for (int edge = edgeStart[i]; edge < edgeStart[i + 1]; edge++) {
+			if (edgeSlot[edge] == s) {
+				return edgeScore[edge];
+			}
+		}
+		return 0d;
+	}
+
+	/**
+	 * @return sum of scores of a given assignment
+	 */
+	public double evaluate(int[] assignment) {
+		double sum = 0d;
+		for (int i = 0; i < assignment.length; i++) {
+			if (assignment[i] >= 0) {
+				sum += getScore(i, assignment[i]);
+			}
+		}
+		return sum;
+	}
+
+}
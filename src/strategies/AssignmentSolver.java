@@ -0,0 +1,28 @@
+package strategies;
+
+/**
+ * Engine solving a single tick of central assignment. Given a sparse matrix
+ * of agent x (task, skill) scores, solver returns for every agent an index of
+ * a slot (TaskInternals) or -1 when the agent was left without orders.
+ * 
+ * A slot may be given to at most one agent. When the time budget runs out,
+ * solver returns the best feasible assignment found so far. A budget of 0 or
+ * less means no limit, results then depend only on the problem.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public interface AssignmentSolver {
+
+	public abstract int[] solve(AssignmentProblem problem, long budgetNanos);
+
+	/**
+	 * @return true when the last solve() ran out of its time budget and
+	 *         returned an incomplete assignment
+	 */
+	public abstract boolean isCutShort();
+
+	public abstract String getName();
+
+}
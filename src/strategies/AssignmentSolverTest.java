@@ -0,0 +1,114 @@
+package strategies;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AssignmentSolverTest {
+
+	private static final int INSTANCES = 300;
+	private static final double PRECISION = 1e-4;
+
+	private final Random random = new Random(20141);
+
+	@Test
+	public void testHungarianIsOptimal() {
+		for (int instance = 0; instance < INSTANCES; instance++) {
+			AssignmentProblem problem = randomProblem(1 + random.nextInt(5),
+					1 + random.nextInt(6));
+			int[] assignment = solve(new HungarianSolver(), problem);
+			assertEquals("Instance " + instance, bruteForce(problem),
+					problem.evaluate(assignment), 1e-9);
+		}
+	}
+
+	@Test
+	public void testAuctionWithinEpsilon() {
+		for (int instance = 0; instance < INSTANCES; instance++) {
+			AssignmentProblem problem = randomProblem(1 + random.nextInt(5),
+					1 + random.nextInt(6));
+			checkAuction(instance, problem);
+		}
+	}
+
+	@Test
+	public void testMoreAgentsThanSlots() {
+		for (int instance = 0; instance < INSTANCES; instance++) {
+			int slots = 1 + random.nextInt(3);
+			AssignmentProblem problem = randomProblem(
+					slots + 1 + random.nextInt(4), slots);
+			int[] assignment = solve(new HungarianSolver(), problem);
+			assertEquals("Instance " + instance, bruteForce(problem),
+					problem.evaluate(assignment), 1e-9);
+			checkAuction(instance, problem);
+		}
+	}
+
+	private void checkAuction(int instance, AssignmentProblem problem) {
+		int agents = problem.getAgentCount();
+		double epsilon = problem.getMaxScore() * PRECISION / (agents + 1);
+		int[] assignment = solve(new AuctionSolver(), problem);
+		double optimum = bruteForce(problem);
+		double score = problem.evaluate(assignment);
+		assertTrue("Instance " + instance + ": " + score + " vs " + optimum,
+				score <= optimum + 1e-9);
+		assertTrue("Instance " + instance + ": " + score + " vs " + optimum,
+				score >= optimum - agents * epsilon - 1e-9);
+	}
+
+	/**
+	 * Solves without a budget and checks that no slot is given twice
+	 */
+	private int[] solve(AssignmentSolver solver, AssignmentProblem problem) {
+		int[] assignment = solver.solve(problem, 0);
+		assertFalse(solver.isCutShort());
+		assertEquals(problem.getAgentCount(), assignment.length);
+		boolean[] taken = new boolean[problem.getSlotCount()];
+		for (int slot : assignment) {
+			if (slot >= 0) {
+				assertFalse("Slot " + slot + " given twice", taken[slot]);
+				taken[slot] = true;
+			}
+		}
+		return assignment;
+	}
+
+	/**
+	 * Scores in [0, 100), about a third of the pairs without an edge
+	 */
+	private AssignmentProblem randomProblem(int agents, int slots) {
+		double[][] scores = new double[agents][slots];
+		for (int i = 0; i < agents; i++) {
+			for (int s = 0; s < slots; s++) {
+				scores[i][s] = random.nextInt(3) == 0 ? 0d : random
+						.nextDouble() * 100;
+			}
+		}
+		return new AssignmentProblem(scores, slots);
+	}
+
+	private static double bruteForce(AssignmentProblem problem) {
+		return bruteForce(problem, 0, new boolean[problem.getSlotCount()]);
+	}
+
+	private static double bruteForce(AssignmentProblem problem, int agent,
+			boolean[] taken) {
+		if (agent == problem.getAgentCount()) {
+			return 0d;
+		}
+		// agent may also stay without orders
+		double best = bruteForce(problem, agent + 1, taken);
+		for (int s = 0; s < taken.length; s++) {
+			if (!taken[s]) {
+				taken[s] = true;
+				best = Math.max(best, problem.getScore(agent, s)
+						+ bruteForce(problem, agent + 1, taken));
+				taken[s] = false;
+			}
+		}
+		return best;
+	}
+
+}
@@ -0,0 +1,112 @@
+package strategies;
+
+import java.util.Arrays;
+
+/**
+ * Near-optimal assignment with the auction algorithm of Bertsekas, working
+ * directly on the sparse score matrix. Agents bid for slots, staying without
+ * orders is an option of value 0 which is never out of stock, hence the
+ * auction ends also when agents outnumber slots.
+ * 
+ * Prices start at 0 and only slots which got a bid are ever assigned, so the
+ * final assignment is within (agents * epsilon) of the optimum, epsilon being
+ * a fraction of the highest score. When the time budget runs out, the
+ * current assignment is returned, it is always feasible. The clock is not
+ * read at all when there is no budget.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class AuctionSolver implements AssignmentSolver {
+
+	private static final double PRECISION = 1e-4;
+	private static final int BIDS_BETWEEN_CLOCK_CHECKS = 256;
+
+	private boolean cutShort;
+
+	@Override
+	public int[] solve(AssignmentProblem problem, long budgetNanos) {
+		boolean bounded = budgetNanos > 0;
+		long deadline = bounded ? System.nanoTime() + budgetNanos : 0;
+		cutShort = false;
+		int agentCount = problem.getAgentCount();
+		int slotCount = problem.getSlotCount();
+
+		double[] price = new double[slotCount];
+		int[] owner = new int[slotCount];
+		int[] assignment = new int[agentCount];
+		Arrays.fill(owner, -1);
+		Arrays.fill(assignment, -1);
+		double epsilon = Math.max(problem.getMaxScore() * PRECISION,
+				Double.MIN_NORMAL) / (agentCount + 1);
+
+		// agents without orders, waiting for their turn to bid
+		int[] queue = new int[agentCount];
+		int head = 0;
+		int tail = 0;
+		int waiting = 0;
+		for (int i = 0; i < agentCount; i++) {
+			if (problem.getEdgeEnd(i) > problem.getEdgeStart(i)) {
+				queue[tail] = i;
+				tail = (tail + 1) % agentCount;
+				waiting++;
+			}
+		}
+
+		int bids = 0;
+		while (waiting > 0) {
+			if (bounded && (++bids % BIDS_BETWEEN_CLOCK_CHECKS == 0)
+					&& (System.nanoTime() > deadline)) {
+				cutShort = true;
+				break;
+			}
+			int agent = queue[head];
+			head = (head + 1) % agentCount;
+			waiting--;
+
+			// best and second best net value, staying idle is worth 0
+			int bestSlot = -1;
+			double bestValue = 0d;
+			double secondValue = 0d;
+			for (int edge = problem.getEdgeStart(agent); edge < problem
+					.getEdgeEnd(agent); edge++) {
+				int slot = problem.getEdgeSlot(edge);
+				double value = problem.getEdgeScore(edge) - price[slot];
+				if (value > bestValue) {
+					secondValue = bestValue;
+					bestValue = value;
+					bestSlot = slot;
+				} else if (value > secondValue) {
+					secondValue = value;
+				}
+			}
+			if (bestSlot < 0) {
+				// every slot is too expensive, agent stays idle
+				continue;
+			}
+			price[bestSlot] += bestValue - secondValue + epsilon;
+			int outbid = owner[bestSlot];
+			owner[bestSlot] = agent;
+			assignment[agent] = bestSlot;
+			if (outbid >= 0) {
+				assignment[outbid] = -1;
+				queue[tail] = outbid;
+				tail = (tail + 1) % agentCount;
+				waiting++;
+			}
+		}
+		return assignment;
+	}
+
+	@Override
+	public boolean isCutShort() {
+		return cutShort;
+	}
+
+	@Override
+	public String getName() {
+		return "auction";
+	}
+
+}
@@ -1,26 +1,41 @@
 package strategies;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import logger.SimulationLogger;
+import repast.simphony.context.ContextEvent;
+import repast.simphony.context.ContextListener;
 import repast.simphony.util.collections.IndexedIterable;
 import tasks.CentralAssignmentOrders;
-import utils.ObjectsHelper;
 import collaboration.Agent;
-import collaboration.Skill;
+import collaboration.RunLocal;
+import collaboration.SimulationAdvancedParameters;
 import collaboration.Task;
 import collaboration.TaskInternals;
 import collaboration.Tasks;
 
 /**
- * Algorithm of central work planning, heuristic is based on an entity called a
- * Central Planner which sorts tasks descending by those least finished, and
- * finds an agent most experienced in those tasks.
+ * Algorithm of central work planning, an entity called a Central Planner
+ * scores every pair of an agent and a skill of unfinished task by work left
+ * multiplied by agent's experience, and solves the assignment of agents to
+ * those pairs with a pluggable AssignmentSolver.
+ * 
+ * In the incremental mode standing orders are kept between ticks, and only
+ * agents whose TaskInternals is finished, whose Task left the simulation or
+ * whose skills changed are planned again, against slots which aren't taken
+ * by other orders. Agents left without a slot share their best one, such a
+ * slot is taken out of the free slots as well. A slot becomes free again
+ * only when the skills of its agent changed and nobody else holds it.
  * 
  * @author Oskar Jarczyk, prof. Adam Wierzbicki
  * @since 1.3
- * @version 2.0.4
+ * @version 3.0
  */
 public class CentralPlanning {
 
@@ -36,23 +51,36 @@ public class CentralPlanning {
 	 */
 	public static final long serialVersionUID = 2820285082126L;
 
-	private static CentralPlanning singletonInstance;
+	/**
+	 * One planner per simulation run
+	 */
+	private static final RunLocal<CentralPlanning> singletonInstance = new RunLocal<CentralPlanning>();
+
+	/**
+	 * State of the incremental planning: slots not taken by any standing
+	 * order and tasks which left the pool since the last tick
+	 */
+	private Set<TaskInternals> freeSlots = new LinkedHashSet<TaskInternals>();
+	private Set<Task> departedTasks = new HashSet<Task>();
+	private Tasks plannedPool = null;
 
 	private CentralPlanning() {
-		System.out.println("getSingletonInstance() prevents any other class from instantiating");
+		SimulationLogger.PLANNER.debug("getSingletonInstance() prevents any other class from instantiating");
 	}
 
 	public static CentralPlanning getSingletonInstance() {
-		if (null == singletonInstance) {
-			singletonInstance = new CentralPlanning();
+		CentralPlanning instance = singletonInstance.get();
+		if (null == instance) {
+			instance = new CentralPlanning();
+			singletonInstance.set(instance);
 		}
-		return singletonInstance;
+		return instance;
 	}
 
 	public void zeroAgentsOrders(IndexedIterable<Agent> listAgent) {
-		System.out.println("Zeroing central planer orders for " + listAgent.size() + "agents");
+		SimulationLogger.PLANNER.debug("Zeroing central planer orders for "
+				+ listAgent.size() + " agents");
 		for (Agent agent : listAgent) {
-			System.out.println("Zeroing orders for " + agent.getName());
 			agent.setCentralAssignmentOrders(null);
 		}
 	}
@@ -73,48 +101,230 @@ public class CentralPlanning {
 	 *            taskPool - a pool of tasks
 	 */
 	public void centralPlanningCalc(Iterable<Agent> agents, Tasks taskPool) {
-		System.out.println("[Central planning] working !");
-
-		Map<Agent, Double> measurements = new HashMap<Agent, Double>();
-		Map<Agent, TaskInternals> results = new HashMap<Agent, TaskInternals>();
+		SimulationLogger.PLANNER.debug("[Central planning] working !");
 
 		if (Tasks.stillNonEmptyTasks()) {
+			AssignmentProblem problem = new AssignmentProblem(agents,
+					taskPool.getUnfinishedTasks());
+			int[] assignment = solve(problem);
 
-			for (Task task : taskPool.getUnfinishedTasks()) {
-				for (Object agent : agents) {
-					Double highestValue = null;
-					Skill highestSkill = null;
-					for (TaskInternals taskInternal : task.getTaskInternals()
-							.values()) {
-						Skill skill = taskInternal.getSkill();
-						Double workLeft = taskInternal.getWorkLeft();
-						Double measure = workLeft
-								* ((Agent) agent).describeExperience(skill,
-										true, false);
-						if (ObjectsHelper.is2ndHigher(highestValue, measure)) {
-							highestValue = measure;
-							highestSkill = skill;
-						}
-					}
-					if (ObjectsHelper.isHigherThanMapEntries(measurements,
-							agent, highestValue)) {
-						results.put((Agent) agent,
-								task.getTaskInternals(highestSkill));
-						measurements.put((Agent) agent, highestValue);
+			for (int i = 0; i < problem.getAgentCount(); i++) {
+				int slot = assignment[i];
+				if ((slot < 0) || (problem.getScore(i, slot) <= 0)) {
+					// keep it simple - every agent need to work, agents left
+					// without orders take their best skill, even if shared
+					slot = problem.getBestSlot(i);
+				}
+				if (slot >= 0) {
+					giveOrders(problem.getAgent(i), problem.getSlot(slot));
+				}
+			}
+		}
+	}
+
+	/***
+	 * Incremental variant of centralPlanningCalc(), orders which are still
+	 * valid are kept, hence the cost of planning depends on how many orders
+	 * became invalid since the last tick, not on the number of agents.
+	 * 
+	 * First call for a given pool of tasks plans all agents.
+	 * 
+	 * @param agents
+	 *            - a pool of agents
+	 * @param taskPool
+	 *            - a pool of tasks
+	 */
+	public void incrementalPlanningCalc(Iterable<Agent> agents, Tasks taskPool) {
+		List<Agent> toPlan = new ArrayList<Agent>();
+		if (taskPool != plannedPool) {
+			startPlanning(taskPool);
+			for (Agent agent : agents) {
+				agent.setCentralAssignmentOrders(null);
+				toPlan.add(agent);
+			}
+		} else {
+			Set<TaskInternals> released = null;
+			for (Agent agent : agents) {
+				CentralAssignmentOrders orders = agent.getCentralAssignmentOrders();
+				if ((orders == null) || !isValid(orders.getChosenSkill())) {
+					agent.setCentralAssignmentOrders(null);
+					toPlan.add(agent);
+				} else if (!orders.isGivenFor(agent.getAgentSkills())) {
+					// experience doesn't matter, only the set of skills
+					if (released == null) {
+						released = new HashSet<TaskInternals>();
 					}
+					released.add(orders.getChosenSkill());
+					agent.setCentralAssignmentOrders(null);
+					toPlan.add(agent);
 				}
 			}
+			if (released != null) {
+				release(released, agents);
+			}
+		}
+		for (Task task : departedTasks) {
+			for (TaskInternals taskInternal : task.getTaskInternals().values()) {
+				freeSlots.remove(taskInternal);
+			}
+		}
+		departedTasks.clear();
+		if (!toPlan.isEmpty()) {
+			// finished skills of tasks which are still in the pool
+			for (Iterator<TaskInternals> iterator = freeSlots.iterator(); iterator
+					.hasNext();) {
+				if (!isValid(iterator.next())) {
+					iterator.remove();
+				}
+			}
+		}
+		if (toPlan.isEmpty() || !Tasks.stillNonEmptyTasks()) {
+			return;
+		}
+		SimulationLogger.PLANNER.debug("[Central planning] re-planning "
+				+ toPlan.size() + " agents");
+
+		AssignmentProblem problem = new AssignmentProblem(toPlan, freeSlots);
+		int[] assignment = solve(problem);
+		List<Agent> leftovers = new ArrayList<Agent>();
+		for (int i = 0; i < problem.getAgentCount(); i++) {
+			int slot = assignment[i];
+			if ((slot >= 0) && (problem.getScore(i, slot) > 0)) {
+				hold(problem.getAgent(i), problem.getSlot(slot));
+			} else {
+				leftovers.add(problem.getAgent(i));
+			}
+		}
+
+		if (!leftovers.isEmpty()) {
+			// every agent need to work, so leftovers take their best skill
+			// among all unfinished tasks, even if shared with others
+			AssignmentProblem shared = new AssignmentProblem(leftovers,
+					taskPool.getUnfinishedTasks());
+			for (int i = 0; i < shared.getAgentCount(); i++) {
+				if (shared.getBestSlot(i) >= 0) {
+					hold(shared.getAgent(i),
+							shared.getSlot(shared.getBestSlot(i)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gives orders for a slot, exclusive or shared - either way the slot
+	 * can't be given to anyone else by a later re-planning
+	 */
+	private void hold(Agent agent, TaskInternals taskInternal) {
+		freeSlots.remove(taskInternal);
+		giveOrders(agent, taskInternal);
+	}
+
+	/**
+	 * Gives back slots of withdrawn orders which are still valid, unless
+	 * another agent holds them
+	 */
+	private void release(Set<TaskInternals> released, Iterable<Agent> agents) {
+		for (Agent agent : agents) {
+			CentralAssignmentOrders orders = agent.getCentralAssignmentOrders();
+			if (orders != null) {
+				released.remove(orders.getChosenSkill());
+			}
+		}
+		freeSlots.addAll(released);
+	}
 
-			// keep it simple - every agent need to work
+	private void startPlanning(Tasks taskPool) {
+		plannedPool = taskPool;
+		freeSlots.clear();
+		departedTasks.clear();
+		for (Task task : taskPool.getUnfinishedTasks()) {
+			freeSlots.addAll(task.getTaskInternals().values());
+		}
+		taskPool.addContextListener(new TaskChurnListener(taskPool));
+	}
 
-			for (Entry<Agent, TaskInternals> entry : results.entrySet()) {
-				Agent agent = entry.getKey();
-				TaskInternals taskInternal = entry.getValue();
-				Task task = taskInternal.getOwner();
-				agent.setCentralAssignmentOrders(new CentralAssignmentOrders(
-						task, taskInternal));
+	/**
+	 * @return true if agents may still work on a given TaskInternals
+	 */
+	private boolean isValid(TaskInternals taskInternal) {
+		Task task = taskInternal.getOwner();
+		return !taskInternal.isWorkDone() && !departedTasks.contains(task)
+				&& (task.getTaskInternals(taskInternal.getSkill()) == taskInternal);
+	}
+
+	/**
+	 * Tells the incremental planner about tasks joining and leaving the pool,
+	 * e.g. new tasks from the continuous task flow
+	 */
+	private class TaskChurnListener implements ContextListener<Task> {
+
+		private final Tasks taskPool;
+
+		private TaskChurnListener(Tasks taskPool) {
+			this.taskPool = taskPool;
+		}
+
+		@Override
+		public void eventOccured(ContextEvent<Task> ev) {
+			if (taskPool != plannedPool) {
+				return;
+			}
+			switch (ev.getType()) {
+			case AGENT_ADDED:
+				freeSlots.addAll(ev.getTarget().getTaskInternals().values());
+				break;
+			case AGENT_REMOVED:
+				departedTasks.add(ev.getTarget());
+				break;
+			default:
+				break;
 			}
 		}
+
+	}
+
+	private int[] solve(AssignmentProblem problem) {
+		AssignmentSolver solver = chooseSolver(problem);
+		int[] assignment = solver.solve(problem, TimeUnit.MILLISECONDS
+				.toNanos(SimulationAdvancedParameters.centralAssignmentBudget));
+		if (solver.isCutShort()) {
+			SimulationLogger.PLANNER.warn("[Central planning] " + solver.getName()
+					+ " ran out of its budget of "
+					+ SimulationAdvancedParameters.centralAssignmentBudget
+					+ " ms, the plan of " + problem.getAgentCount()
+					+ " agents is incomplete");
+		}
+		if (SimulationLogger.PLANNER.isDebug()) {
+			SimulationLogger.PLANNER.debug("[Central planning] " + solver.getName()
+					+ " solved " + problem.getAgentCount() + " agents x "
+					+ problem.getSlotCount() + " skills ("
+					+ problem.getEdgeCount() + " edges), total score "
+					+ problem.evaluate(assignment));
+		}
+		return assignment;
+	}
+
+	private void giveOrders(Agent agent, TaskInternals taskInternal) {
+		agent.setCentralAssignmentOrders(new CentralAssignmentOrders(
+				taskInternal.getOwner(), taskInternal, agent.getAgentSkills()));
+	}
+
+	/**
+	 * Solver is set by SimulationAdvancedParameters.centralAssignmentSolver,
+	 * "auto" means Hungarian method for small problems and auction otherwise
+	 */
+	private AssignmentSolver chooseSolver(AssignmentProblem problem) {
+		String name = SimulationAdvancedParameters.centralAssignmentSolver;
+		if (name.equals("greedy")) {
+			return new GreedySolver();
+		} else if (name.equals("hungarian")) {
+			return new HungarianSolver();
+		} else if (name.equals("auction")) {
+			return new AuctionSolver();
+		}
+		int size = Math.max(problem.getAgentCount(), problem.getSlotCount());
+		return size <= SimulationAdvancedParameters.centralAssignmentHungarianLimit ? 
+				new HungarianSolver() : new AuctionSolver();
 	}
 
 	@Override
@@ -3,8 +3,8 @@ package strategies;
 import java.util.HashMap;
 import java.util.Map;
 
-import repast.simphony.random.RandomHelper;
 import utils.ObjectsHelper;
+import utils.RandomStreams;
 
 /***
  * Complex Strategies used in the simulation
@@ -69,7 +69,7 @@ public class ComplexStrategy extends Strategy implements StrategyInterface {
 
 	@Override
 	public TaskChoice getTaskChoice() {
-		return ObjectsHelper.getProbKey(RandomHelper.nextDoubleFromTo(0, 1),
+		return ObjectsHelper.getProbKey(RandomStreams.nextDoubleFromTo(0, 1),
 				probability);
 	}
 
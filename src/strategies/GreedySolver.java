@@ -0,0 +1,32 @@
+package strategies;
+
+/**
+ * The original central planner: every agent gets the slot of his highest
+ * score, regardless of other agents, hence several agents may share a slot.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class GreedySolver implements AssignmentSolver {
+
+	@Override
+	public int[] solve(AssignmentProblem problem, long budgetNanos) {
+		int[] assignment = new int[problem.getAgentCount()];
+		for (int i = 0; i < assignment.length; i++) {
+			assignment[i] = problem.getBestSlot(i);
+		}
+		return assignment;
+	}
+
+	@Override
+	public boolean isCutShort() {
+		return false;
+	}
+
+	@Override
+	public String getName() {
+		return "greedy";
+	}
+
+}
@@ -0,0 +1,120 @@
+package strategies;
+
+import java.util.Arrays;
+
+/**
+ * Optimal assignment with the Hungarian (Kuhn-Munkres) method in its
+ * O(n^2 m) shortest augmenting path form. The score matrix is made dense, so
+ * the solver is meant for small populations of agents and tasks.
+ * 
+ * Rows are added one at a time, after every row the matching is feasible,
+ * hence it is returned as it is when the time budget runs out.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class HungarianSolver implements AssignmentSolver {
+
+	private boolean cutShort;
+
+	@Override
+	public int[] solve(AssignmentProblem problem, long budgetNanos) {
+		boolean bounded = budgetNanos > 0;
+		long deadline = bounded ? System.nanoTime() + budgetNanos : 0;
+		cutShort = false;
+		int agentCount = problem.getAgentCount();
+		int slotCount = problem.getSlotCount();
+		// rows can't outnumber columns, transpose when there are more agents
+		boolean transposed = agentCount > slotCount;
+		int n = transposed ? slotCount : agentCount;
+		int m = transposed ? agentCount : slotCount;
+
+		double[][] cost = new double[n + 1][m + 1];
+		for (int i = 0; i < agentCount; i++) {
+			for (int edge = problem.getEdgeStart(i); edge < problem
+					.getEdgeEnd(i); edge++) {
+				int s = problem.getEdgeSlot(edge);
+				if (transposed) {
+					cost[s + 1][i + 1] = -problem.getEdgeScore(edge);
+				} else {
+					cost[i + 1][s + 1] = -problem.getEdgeScore(edge);
+				}
+			}
+		}
+
+		double[] u = new double[n + 1];
+		double[] v = new double[m + 1];
+		int[] matched = new int[m + 1];
+		int[] way = new int[m + 1];
+		double[] minv = new double[m + 1];
+		boolean[] used = new boolean[m + 1];
+		for (int row = 1; row <= n; row++) {
+			if (bounded && System.nanoTime() > deadline) {
+				cutShort = true;
+				break;
+			}
+			matched[0] = row;
+			int j0 = 0;
+			Arrays.fill(minv, Double.POSITIVE_INFINITY);
+			Arrays.fill(used, false);
+			do {
+				used[j0] = true;
+				int i0 = matched[j0];
+				double delta = Double.POSITIVE_INFINITY;
+				int j1 = 0;
+				for (int j = 1; j <= m; j++) {
+					if (!used[j]) {
+						double current = cost[i0][j] - u[i0] - v[j];
+						if (current < minv[j]) {
+							minv[j] = current;
+							way[j] = j0;
+						}
+						if (minv[j] < delta) {
+							delta = minv[j];
+							j1 = j;
+						}
+					}
+				}
+				for (int j = 0; j <= m; j++) {
+					if (used[j]) {
+						u[matched[j]] += delta;
+						v[j] -= delta;
+					} else {
+						minv[j] -= delta;
+					}
+				}
+				j0 = j1;
+			} while (matched[j0] != 0);
+			do {
+				int j1 = way[j0];
+				matched[j0] = matched[j1];
+				j0 = j1;
+			} while (j0 != 0);
+		}
+
+		int[] assignment = new int[agentCount];
+		Arrays.fill(assignment, -1);
+		for (int j = 1; j <= m; j++) {
+			if (matched[j] != 0) {
+				if (transposed) {
+					assignment[j - 1] = matched[j] - 1;
+				} else {
+					assignment[matched[j] - 1] = j - 1;
+				}
+			}
+		}
+		return assignment;
+	}
+
+	@Override
+	public boolean isCutShort() {
+		return cutShort;
+	}
+
+	@Override
+	public String getName() {
+		return "hungarian";
+	}
+
+}
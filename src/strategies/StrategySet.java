@@ -6,7 +6,7 @@ import com.google.common.collect.Lists;
 
 public class StrategySet {
 
-	private static LinkedList<StrategyFrequency> strategies;
+	private LinkedList<StrategyFrequency> strategies;
 	
 	public String describe(){
 		StringBuilder str = new StringBuilder();
@@ -77,12 +77,12 @@ public class StrategySet {
 		return resultSet;
 	}
 
-	public static LinkedList<StrategyFrequency> getStrategies() {
+	public LinkedList<StrategyFrequency> getStrategies() {
 		return strategies;
 	}
 
-	public static void setStrategies(LinkedList<StrategyFrequency> strategies) {
-		StrategySet.strategies = strategies;
+	public void setStrategies(LinkedList<StrategyFrequency> strategies) {
+		this.strategies = strategies;
 	}
 
 }
@@ -1,5 +1,6 @@
 package tasks;
 
+import collaboration.AgentSkills;
 import collaboration.Task;
 import collaboration.TaskInternals;
 
@@ -15,10 +16,31 @@ public class CentralAssignmentOrders {
 	private Task chosenTask;
 	private TaskInternals chosenSkill;
 	
+	/**
+	 * Skills of the agent when orders were given, see isGivenFor()
+	 */
+	private AgentSkills givenFor;
+	private int givenForLayout;
+	
 	public CentralAssignmentOrders(Task chosenTask, TaskInternals chosenSkill){
 		this.chosenTask = chosenTask;
 		this.chosenSkill = chosenSkill;
 	}
+	
+	public CentralAssignmentOrders(Task chosenTask, TaskInternals chosenSkill,
+			AgentSkills givenFor) {
+		this(chosenTask, chosenSkill);
+		this.givenFor = givenFor;
+		this.givenForLayout = givenFor.getLayout();
+	}
+	
+	/**
+	 * @return true if agent's skills are the same as when orders were given
+	 */
+	public boolean isGivenFor(AgentSkills agentSkills) {
+		return (agentSkills == givenFor)
+				&& (agentSkills.getLayout() == givenForLayout);
+	}
 
 	public TaskInternals getChosenSkill() {
 		return this.chosenSkill;
@@ -41,9 +41,8 @@ public class Heterophyly {
 		Set<Task> candidates = new HashSet<Task>();
 		
 		for (Task task : intersection){
-			Collection<Skill> common = 
-					TasksUtils.intersectWithAgentSkills(agent, task.getSkills());
-			Double denominator = common.isEmpty() ? 0.1 : common.size();
+			int common = TasksUtils.countCommonSkills(agent, task);
+			Double denominator = common == 0 ? 0.1 : common;
 			Double loveFactor = agentSkillsCount / denominator;
 			
 			if (loveFactor >= lowest){
@@ -80,7 +79,7 @@ public class Heterophyly {
 				Double considerExp = Double.MAX_VALUE;
 				for (Task task : finalCandidates){
 					Collection<Skill> common = 
-							TasksUtils.intersectWithAgentSkills(agent, task.getSkills());
+							TasksUtils.intersectWithAgentSkills(agent, task);
 					Double agentExp = agent.getFilteredExperience(common);
 					if (agentExp < considerExp){
 						chosen = task;
@@ -1,13 +1,14 @@
 package tasks;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import utils.RandomStreams;
 import collaboration.Agent;
 import collaboration.Skill;
 import collaboration.Task;
+import collaboration.Tasks;
 import collaboration.TasksUtils;
 
 /***
@@ -29,19 +30,23 @@ public class HeterophylyExpBased implements StrategyMathInterface {
 		Task chosen = null;
 		assert agent != null;
 		
+		Tasks pool = SkillCandidates.indexedPool(tasks);
+		if (pool != null) {
+			return SkillCandidates.lowest(agent, pool);
+		}
+		
 		List<Task> intersection = new ArrayList<Task>(tasks.values());
-		Collections.shuffle(intersection);
+		RandomStreams.shuffle(intersection, agent);
 		
 		double expArgMin = Double.MAX_VALUE;
 		
 		for (Task task : intersection){
 			double taskLowestSkillExp = 0;
 			
-			List<Skill> common = new ArrayList<Skill>(
-					TasksUtils.intersectWithAgentSkills(agent, task.getSkills()));
-			
-			if(!common.isEmpty()){
-				Collections.shuffle(common);
+			if(TasksUtils.hasCommonSkill(agent, task)){
+				List<Skill> common = new ArrayList<Skill>(
+						TasksUtils.intersectWithAgentSkills(agent, task.getSkills()));
+				RandomStreams.shuffle(common, agent);
 				taskLowestSkillExp = Double.MAX_VALUE;
 				for(Skill skill : common){
 					double agentExp = agent.getExperience(skill);
@@ -9,6 +9,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
+import logger.SimulationLogger;
 import collaboration.Agent;
 import collaboration.Skill;
 import collaboration.Task;
@@ -47,16 +48,15 @@ public class Homophyly {
 		// there are no tasks left with such experience ?
 		// there is nothing to do
 		if (intersection.size() < 1) {
-			System.out.println(Constraints.DIDNT_FOUND_TASK);
+			SimulationLogger.TASK.debug(Constraints.DIDNT_FOUND_TASK);
 			return chosen;
 		}
 		Double lowest = Double.MAX_VALUE;
 		Set<Task> candidates = new HashSet<Task>();
 		
 		for (Task task : intersection){
-			Collection<Skill> common = 
-					TasksUtils.intersectWithAgentSkills(agent, task.getSkills());
-			Double loveFactor = agentSkillsCount / common.size();
+			int common = TasksUtils.countCommonSkills(agent, task);
+			Double loveFactor = agentSkillsCount / common;
 			
 			if (loveFactor <= lowest){
 				lowest = loveFactor;
@@ -92,7 +92,7 @@ public class Homophyly {
 				Double considerExp = Double.MIN_VALUE;
 				for (Task task : finalCandidates){
 					Collection<Skill> common = 
-							TasksUtils.intersectWithAgentSkills(agent, task.getSkills());
+							TasksUtils.intersectWithAgentSkills(agent, task);
 					Double agentExp = agent.getFilteredExperience(common);
 					if (agentExp > considerExp){
 						chosen = task;
@@ -38,6 +38,17 @@ public class Preferential {
 		Collection<Skill> allAgentSkills = agent.getSkills();
 		Task chosen = null;
 
+		Tasks pool = SkillCandidates.indexedPool(tasks);
+		if (pool != null) {
+			// tops of the popularity rankings of agent's skills
+			chosen = pool.getMostVisitedTask(allAgentSkills);
+			if (chosen == null)
+				chosen = pool.getMostAdvancedTask(allAgentSkills);
+			if (chosen == null)
+				chosen = pool.getMostAdvancedTask();
+			return chosen;
+		}
+
 		// get all tasks with agent skills
 
 		Set<Task> tasksHavingSkills = Tasks.getTasksHavingSkills(allAgentSkills);
@@ -0,0 +1,146 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import utils.RandomStreams;
+import collaboration.Agent;
+import collaboration.AgentInternals;
+import collaboration.Skill;
+import collaboration.SkillMask;
+import collaboration.Task;
+import collaboration.Tasks;
+import collaboration.TasksUtils;
+
+/***
+ * Experience based choice of a task through the skill index of Tasks.
+ * 
+ * A task is worth the highest (homophyly) or the lowest (heterophyly)
+ * experience of the agent among skills they share, hence the best task is
+ * one requiring the agent's best (worst) skill which is still required by
+ * any task. Only agent's skills are walked, tasks are reached through the
+ * index, ties between tasks are broken uniformly with reservoir sampling
+ * drawn from the agent's random stream.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+class SkillCandidates {
+
+	/**
+	 * @return Tasks of the current run when tasks is its registry, null
+	 *         otherwise (e.g. a custom map of tasks)
+	 */
+	static Tasks indexedPool(Map<String, Task> tasks) {
+		return Tasks.indexing(tasks);
+	}
+
+	/**
+	 * Same choice as the scan in HomophylyExpBased, tasks without a common
+	 * skill are never chosen
+	 */
+	static Task highest(Agent agent, Tasks pool) {
+		double best = Double.MIN_VALUE;
+		List<Skill> tied = new ArrayList<Skill>();
+		for (AgentInternals internals : agent.getAgentInternals()) {
+			if (pool.getTasksHavingSkill(internals.getSkill()).isEmpty())
+				continue;
+			double experience = internals.getExperience().getDelta();
+			if (experience > best) {
+				best = experience;
+				tied.clear();
+				tied.add(internals.getSkill());
+			} else if (experience == best && !tied.isEmpty()) {
+				tied.add(internals.getSkill());
+			}
+		}
+		Reservoir reservoir = new Reservoir(agent);
+		offerTied(reservoir, pool, tied);
+		return reservoir.chosen;
+	}
+
+	/**
+	 * Same choice as the scan in HeterophylyExpBased, where a task without
+	 * any common skill is worth 0
+	 */
+	static Task lowest(Agent agent, Tasks pool) {
+		double worst = Double.MAX_VALUE;
+		List<Skill> tied = new ArrayList<Skill>();
+		for (AgentInternals internals : agent.getAgentInternals()) {
+			if (pool.getTasksHavingSkill(internals.getSkill()).isEmpty())
+				continue;
+			double experience = internals.getExperience().getDelta();
+			if (experience < worst) {
+				worst = experience;
+				tied.clear();
+				tied.add(internals.getSkill());
+			} else if (experience == worst) {
+				tied.add(internals.getSkill());
+			}
+		}
+		Reservoir reservoir = new Reservoir(agent);
+		if (worst >= 0) {
+			// tasks with nothing in common are worth 0
+			for (Task task : pool.getTaskRegistry().values()) {
+				if (!TasksUtils.hasCommonSkill(agent, task)) {
+					reservoir.offer(task);
+				}
+			}
+			if (worst > 0 && reservoir.chosen != null) {
+				return reservoir.chosen;
+			}
+		}
+		offerTied(reservoir, pool, tied);
+		return reservoir.chosen;
+	}
+
+	/**
+	 * Offers every task requiring at least one of the tied skills once
+	 */
+	private static void offerTied(Reservoir reservoir, Tasks pool,
+			List<Skill> tied) {
+		for (int i = 0; i < tied.size(); i++) {
+			for (Task task : pool.getTasksHavingSkill(tied.get(i))) {
+				if (!offeredBefore(task.getSkillMask(), tied, i)) {
+					reservoir.offer(task);
+				}
+			}
+		}
+	}
+
+	private static boolean offeredBefore(SkillMask mask, List<Skill> tied,
+			int index) {
+		for (int j = 0; j < index; j++) {
+			if (mask.get(tied.get(j))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Uniform choice of one task out of a stream of unknown length
+	 */
+	private static class Reservoir {
+
+		private final Agent agent;
+		private int seen = 0;
+		private Task chosen;
+
+		Reservoir(Agent agent) {
+			this.agent = agent;
+		}
+
+		void offer(Task task) {
+			seen++;
+			if (seen == 1
+					|| RandomStreams.nextIntFromTo(agent, 0, seen - 1) == 0) {
+				chosen = task;
+			}
+		}
+
+	}
+
+}
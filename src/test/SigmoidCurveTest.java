@@ -2,13 +2,30 @@ package test;
 
 import static org.junit.Assert.*;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import collaboration.HeadlessRun;
 import collaboration.SigmoidCurve;
+import collaboration.SimulationRun;
 
 public class SigmoidCurveTest {
 	
 	private double delta = 0.002472623156634775 + 0.00000001;
+	
+	private SimulationRun previous;
+	
+	@Before
+	public void bindRun() {
+		// lookup tables belong to a run
+		previous = new HeadlessRun(1, 1, 0).bind();
+	}
+	
+	@After
+	public void restoreRun() {
+		SimulationRun.restore(previous);
+	}
 
 	@Test
 	public void testMin() {
@@ -29,5 +46,26 @@ public class SigmoidCurveTest {
 	public void testOverLearning() {
 		assertEquals(1.0, SigmoidCurve.getDelta(1.3), 0.00000001);
 	}
+	
+	@Test
+	public void testLookupTable() {
+		double exact = SigmoidCurve.getCustomDelta(0.377, 100);
+		double exactMiddle = SigmoidCurve.getDelta(0.5);
+		assertTrue(SigmoidCurve.buildLookupTables(4096, 100, 1e-6));
+		try {
+			assertTrue(SigmoidCurve.getTableError() <= 1e-6);
+			assertEquals(exact, SigmoidCurve.getCustomDelta(0.377, 100), 1e-6);
+			assertEquals(exactMiddle, SigmoidCurve.getDelta(0.5), 1e-6);
+			assertEquals(1.0, SigmoidCurve.getDelta(1.3), 0.00000001);
+		} finally {
+			SigmoidCurve.clearLookupTables();
+		}
+	}
+	
+	@Test
+	public void testLookupTableTooCoarse() {
+		assertFalse(SigmoidCurve.buildLookupTables(4, 1, 1e-6));
+		assertFalse(SigmoidCurve.isTabulated());
+	}
 
 }
@@ -8,10 +8,10 @@ import java.util.List;
 import java.util.Map;
 
 import load.AgentCount;
-import repast.simphony.random.RandomHelper;
+import load.EvolutionOperatorSet;
+import logger.SimulationLogger;
 import strategies.Strategy.TaskChoice;
 import collaboration.Agent;
-import collaboration.Agents;
 import collaboration.GameController;
 
 /***
@@ -23,35 +23,42 @@ import collaboration.GameController;
 public class AgentEvolve {
 
 	private static ArrayList<Agent> chooseAgents(Object context) {
-		System.out.println("Choosing all Agents to participate in evolution");
+		SimulationLogger.EVOLUTION.debug("Choosing all Agents to participate in evolution");
 		return GameController.chooseAllAgents(context);
 	}
 
 	public static void evolve(Object context) {
-		System.out.println("Executing stochasting universal sampling (SUS)");
+		EvolutionOperator.Selection selection = EvolutionOperatorSet.INSTANCE
+				.getChosen();
+		SimulationLogger.EVOLUTION.info("Executing evolution with " + selection
+				+ " selection");
 		ArrayList<Agent> agents = chooseAgents(context);
-		System.out.println("There are " + agents.size() + " agents ");
+		SimulationLogger.EVOLUTION.debug("There are " + agents.size() + " agents ");
 		assert agents.size() == AgentCount.INSTANCE.getChosen();
 		Agent testAgent = agents.get(0);
-		Agent randomAgent = agents.get(RandomHelper.nextIntFromTo(0,
+		Agent randomAgent = agents.get(RandomStreams.nextIntFromTo(0,
 				agents.size() - 1));
-		System.out.println("Strategy of 1st [Agent] before evolution: "
-				+ testAgent.getStrategy().toString());
-		System.out.println("Experience of 1st [Agent] before evolution: "
-				+ testAgent.describeExperience());
-		System.out.println("Strategy of random [Agent] before evolution: "
-				+ randomAgent.getStrategy().toString());
-		System.out.println("Experience of random [Agent] before evolution: "
-				+ randomAgent.describeExperience());
-		Agents.stochasticSampling(agents);
-		System.out.println("Strategy of 1st [Agent] after evolution: "
-				+ testAgent.getStrategy().toString());
-		System.out.println("Experience of 1st [Agent] after evolution: "
-				+ testAgent.describeExperience());
-		System.out.println("Strategy of random [Agent] after evolution: "
-				+ testAgent.getStrategy().toString());
-		System.out.println("Experience of random [Agent] after evolution: "
-				+ testAgent.describeExperience());
+		if (SimulationLogger.EVOLUTION.isDebug()) {
+			SimulationLogger.EVOLUTION.debug("Strategy of 1st [Agent] before evolution: "
+					+ testAgent.getStrategy().toString());
+			SimulationLogger.EVOLUTION.debug("Experience of 1st [Agent] before evolution: "
+					+ testAgent.describeExperience());
+			SimulationLogger.EVOLUTION.debug("Strategy of random [Agent] before evolution: "
+					+ randomAgent.getStrategy().toString());
+			SimulationLogger.EVOLUTION.debug("Experience of random [Agent] before evolution: "
+					+ randomAgent.describeExperience());
+		}
+		selection.create().evolve(agents);
+		if (SimulationLogger.EVOLUTION.isDebug()) {
+			SimulationLogger.EVOLUTION.debug("Strategy of 1st [Agent] after evolution: "
+					+ testAgent.getStrategy().toString());
+			SimulationLogger.EVOLUTION.debug("Experience of 1st [Agent] after evolution: "
+					+ testAgent.describeExperience());
+			SimulationLogger.EVOLUTION.debug("Strategy of random [Agent] after evolution: "
+					+ randomAgent.getStrategy().toString());
+			SimulationLogger.EVOLUTION.debug("Experience of random [Agent] after evolution: "
+					+ randomAgent.describeExperience());
+		}
 		EquilibriumDetector.report(buildStrategySet(agents));
 	}
 
@@ -1,11 +1,12 @@
 package utils;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
-
-import com.google.common.collect.Lists;
+import java.util.NoSuchElementException;
 
 public class Combinatorics {
 
@@ -25,37 +26,114 @@ public class Combinatorics {
 	 *            Original list of collections which elements have to be
 	 *            combined.
 	 * @return Resultant collection of lists with all permutations of original
-	 *         list.
+	 *         list, computed lazily (see {@link Product}).
 	 */
 	public static <T> Collection<List<T>> permutations(
 			List<Collection<T>> collections) {
 		if (collections == null || collections.isEmpty()) {
 			return Collections.emptyList();
 		} else {
-			Collection<List<T>> res = Lists.newLinkedList();
-			permutationsImpl(collections, res, 0, new LinkedList<T>());
-			return res;
+			return product(collections);
 		}
 	}
 
-	/** Recursive implementation for {@link #permutations(List, Collection)} */
-	private static <T> void permutationsImpl(List<Collection<T>> ori,
-			Collection<List<T>> res, int d, List<T> current) {
-		// if depth equals number of original collections, final reached, add
-		// and return
-		if (d == ori.size()) {
-			res.add(current);
-			return;
+	public static <T> Product<T> product(
+			List<? extends Collection<? extends T>> collections) {
+		return new Product<T>(collections);
+	}
+
+	/**
+	 * Cartesian product of collections which is never materialized. The i-th
+	 * combination is decoded from i as a mixed-radix number, the last
+	 * collection being the least significant digit, thus get(i) costs
+	 * O(number of collections) and the order is the same as of
+	 * {@link Combinatorics#permutations(List)}. The iterator walks the
+	 * combinations like an odometer.
+	 * 
+	 * Collections are copied when the product is created, later changes to
+	 * them are not visible.
+	 */
+	public static class Product<T> extends AbstractList<List<T>> {
+
+		private final List<List<T>> dimensions;
+		private final int size;
+
+		Product(List<? extends Collection<? extends T>> collections) {
+			dimensions = new ArrayList<List<T>>(collections.size());
+			long product = 1;
+			for (Collection<? extends T> collection : collections) {
+				dimensions.add(new ArrayList<T>(collection));
+				product *= collection.size();
+				if (product > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException(
+							"Product has more than " + Integer.MAX_VALUE
+									+ " combinations");
+				}
+			}
+			size = dimensions.isEmpty() ? 0 : (int) product;
 		}
 
-		// iterate from current collection and copy 'current' element N times,
-		// one for each element
-		Collection<T> currentCollection = ori.get(d);
-		for (T element : currentCollection) {
-			List<T> copy = Lists.newLinkedList(current);
-			copy.add(element);
-			permutationsImpl(ori, res, d + 1, copy);
+		@Override
+		public int size() {
+			return size;
 		}
+
+		@Override
+		public List<T> get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index " + index
+						+ ", size " + size);
+			}
+			List<T> combination = new ArrayList<T>(dimensions.size());
+			for (int d = 0; d < dimensions.size(); d++) {
+				combination.add(null);
+			}
+			for (int d = dimensions.size() - 1; d >= 0; d--) {
+				List<T> dimension = dimensions.get(d);
+				combination.set(d, dimension.get(index % dimension.size()));
+				index /= dimension.size();
+			}
+			return combination;
+		}
+
+		@Override
+		public Iterator<List<T>> iterator() {
+			return new Iterator<List<T>>() {
+
+				private final int[] digits = new int[dimensions.size()];
+				private int remaining = size;
+
+				@Override
+				public boolean hasNext() {
+					return remaining > 0;
+				}
+
+				@Override
+				public List<T> next() {
+					if (remaining == 0) {
+						throw new NoSuchElementException();
+					}
+					List<T> combination = new ArrayList<T>(digits.length);
+					for (int d = 0; d < digits.length; d++) {
+						combination.add(dimensions.get(d).get(digits[d]));
+					}
+					remaining--;
+					for (int d = digits.length - 1; d >= 0; d--) {
+						if (++digits[d] < dimensions.get(d).size()) {
+							break;
+						}
+						digits[d] = 0;
+					}
+					return combination;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
 	}
 
 }
@@ -0,0 +1,55 @@
+package utils;
+
+import java.util.ArrayList;
+
+import collaboration.Agent;
+
+/***
+ * Evolution of agents' strategies - selects parents among the population,
+ * agents take strategies of their parents and mutate. Operator is chosen
+ * with the evolutionOperator parameter (see load.EvolutionOperatorSet).
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public interface EvolutionOperator {
+
+	void evolve(ArrayList<Agent> population);
+
+	public enum Selection {
+		/**
+		 * Stochastic Universal Sampling, proportional to utility
+		 */
+		SUS,
+		/**
+		 * Every agent takes strategy of the best out of tournamentSize
+		 * randomly drawn agents
+		 */
+		TOURNAMENT,
+		/**
+		 * Sampling proportional to the rank of agent's utility rather than
+		 * to the utility itself
+		 */
+		RANK,
+		/**
+		 * Strategies of the best truncationRatio of agents are copied, the
+		 * best elitismCount agents are kept untouched
+		 */
+		TRUNCATION;
+
+		public EvolutionOperator create() {
+			switch (this) {
+			case TOURNAMENT:
+				return new TournamentSelection();
+			case RANK:
+				return new RankSelection();
+			case TRUNCATION:
+				return new TruncationSelection();
+			default:
+				return new UniversalSampling();
+			}
+		}
+	}
+
+}
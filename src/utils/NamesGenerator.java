@@ -1,6 +1,7 @@
 package utils;
 
 import collaboration.Agent;
+import collaboration.RunLocal;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,17 +14,26 @@ import org.soqqo.datagen.config.GenConfig;
 public class NamesGenerator {
 	
 	static RandomDataGenerator rdg = new RandomDataGenerator();
-	private static ArrayList<String> nicknames = new ArrayList<String>();
+	private static final RunLocal<ArrayList<String>> runNicknames = new RunLocal<ArrayList<String>>() {
+		@Override
+		protected ArrayList<String> initialValue() {
+			return new ArrayList<String>();
+		}
+	};
 	
 	public static void clear(){
-		nicknames.clear();
+		runNicknames.get().clear();
 	}
 
 	public static List<Agent> getnames(int count) {
-		List<Agent> randomPersons = rdg.generateList(
-				count,
-				new GenConfig().name(Name.Firstname, "firstName").name(
-						Name.Lastname, "lastName"), Agent.class);
+		List<Agent> randomPersons;
+		synchronized (rdg) {
+			randomPersons = rdg.generateList(
+					count,
+					new GenConfig().name(Name.Firstname, "firstName").name(
+							Name.Lastname, "lastName"), Agent.class);
+		}
+		ArrayList<String> nicknames = runNicknames.get();
 		
 		for(Agent agent : randomPersons){
 			String nick = agent.getFirstName() + "_" + agent.getLastName();
@@ -3,7 +3,6 @@ package utils;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import repast.simphony.random.RandomHelper;
 import strategies.Strategy.TaskChoice;
 import collaboration.Agent;
 
@@ -13,26 +12,13 @@ public class ObjectsHelper {
 
 	@SafeVarargs
 	public static <T> T randomFrom(T... items) {
-		return items[RandomHelper.nextIntFromTo(0, items.length - 1)];
+		return items[RandomStreams.nextIntFromTo(0, items.length - 1)];
 	}
 
 	public static Integer fromDouble(double value) {
 		return (int) value;
 	}
 	
-	@SuppressWarnings("rawtypes")
-	public static Boolean isSecondEqual(Map m1, Map m2) {
-		if (m2 == null) {
-			return true;
-		} else {
-			if (m1.hashCode() == m2.hashCode()) {
-				return true;
-			} else {
-				return false;
-			}
-		}
-	}
-
 	public static Boolean is2ndHigher(Double d1, Double d2) {
 		if (d1 == null) {
 			return true;
@@ -0,0 +1,127 @@
+package utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import repast.simphony.random.RandomHelper;
+import collaboration.Agent;
+import collaboration.RunLocal;
+
+/**
+ * Source of randomness for the simulation. In the default (serial) Repast
+ * run every call goes to RandomHelper and the shared java.util.Random,
+ * exactly as before. A headless run draws from its own generator, so runs
+ * executed side by side don't disturb each other. When agents step in
+ * parallel, every agent draws from his own stream seeded with the randomSeed
+ * and agent's identifier, hence results don't depend on how threads were
+ * interleaved.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class RandomStreams {
+
+	private static final RunLocal<RandomStreams> state = new RunLocal<RandomStreams>() {
+		@Override
+		protected RandomStreams initialValue() {
+			return new RandomStreams(false, 0L, null);
+		}
+	};
+
+	private final boolean split;
+	private final long seed;
+	/**
+	 * Generator of the whole run, null means RandomHelper
+	 */
+	private final Random shared;
+
+	private RandomStreams(boolean split, long seed, Random shared) {
+		this.split = split;
+		this.seed = seed;
+		this.shared = shared;
+	}
+
+	public static void init(boolean splitStreams, int randomSeed) {
+		init(splitStreams, randomSeed, null);
+	}
+
+	public static void init(boolean splitStreams, int randomSeed,
+			Random shared) {
+		state.set(new RandomStreams(splitStreams, randomSeed, shared));
+	}
+
+	public static boolean isSplit() {
+		return state.get().split;
+	}
+
+	/**
+	 * @return a new generator of the stream with a given number, e.g. agent
+	 *         identifier or a tick
+	 */
+	public static Random create(long stream) {
+		return new Random(mix(state.get().seed * 0x9E3779B97F4A7C15L + stream));
+	}
+
+	public static void shuffle(List<?> list) {
+		Random shared = state.get().shared;
+		if (shared != null) {
+			Collections.shuffle(list, shared);
+		} else {
+			Collections.shuffle(list);
+		}
+	}
+
+	public static int nextIntFromTo(int from, int to) {
+		Random shared = state.get().shared;
+		if (shared != null) {
+			return from + shared.nextInt(to - from + 1);
+		} else {
+			return RandomHelper.nextIntFromTo(from, to);
+		}
+	}
+
+	public static double nextDoubleFromTo(double from, double to) {
+		Random shared = state.get().shared;
+		if (shared != null) {
+			return from + shared.nextDouble() * (to - from);
+		} else {
+			return RandomHelper.nextDoubleFromTo(from, to);
+		}
+	}
+
+	public static void shuffle(List<?> list, Agent agent) {
+		if (isSplit()) {
+			Collections.shuffle(list, agent.getRandom());
+		} else {
+			shuffle(list);
+		}
+	}
+
+	public static int nextIntFromTo(Agent agent, int from, int to) {
+		if (isSplit()) {
+			return from + agent.getRandom().nextInt(to - from + 1);
+		} else {
+			return nextIntFromTo(from, to);
+		}
+	}
+
+	public static double nextDoubleFromTo(Agent agent, double from, double to) {
+		if (isSplit()) {
+			return from + agent.getRandom().nextDouble() * (to - from);
+		} else {
+			return nextDoubleFromTo(from, to);
+		}
+	}
+
+	/**
+	 * Finalizer of SplitMix64, neighbouring streams get unrelated seeds
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -0,0 +1,42 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import collaboration.Agent;
+import collaboration.Agents;
+
+/***
+ * Linear rank selection - the best of n agents has weight n, the worst has
+ * weight 1, parents are drawn with Stochastic Universal Sampling over the
+ * weights and handed out to agents in random order. Insensitive to the scale
+ * of utility, thus a few outstanding agents don't take over the population.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class RankSelection extends SelectionOperator {
+
+	@Override
+	protected int[] select(ArrayList<Agent> population, double[] utilities) {
+		int n = utilities.length;
+		Integer[] byRank = rank(utilities);
+		double[] weights = new double[n];
+		List<Integer> receivers = new ArrayList<Integer>(n);
+		for (int i = 0; i < n; i++) {
+			weights[i] = n - i;
+			receivers.add(i);
+		}
+		int[] selected = Agents.universalSampling(weights,
+				RandomStreams.nextDoubleFromTo(0, 1));
+		RandomStreams.shuffle(receivers);
+
+		int[] parents = new int[n];
+		for (int i = 0; i < n; i++) {
+			parents[receivers.get(i)] = byRank[selected[i]];
+		}
+		return parents;
+	}
+
+}
@@ -0,0 +1,72 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import strategies.Strategy;
+import collaboration.Agent;
+
+/***
+ * Base of operators which select a parent for every agent. Utility of every
+ * agent is computed once, strategies of parents are copied from a backup
+ * made before any agent changes, then agents mutate.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public abstract class SelectionOperator implements EvolutionOperator {
+
+	/**
+	 * Marks an agent which keeps its strategy and doesn't mutate
+	 */
+	protected static final int KEEP = -1;
+
+	@Override
+	public void evolve(ArrayList<Agent> population) {
+		int n = population.size();
+		if (n == 0)
+			return;
+		double[] utilities = new double[n];
+		Strategy[] strategiesBackup = new Strategy[n];
+		for (int i = 0; i < n; i++) {
+			Agent agent = population.get(i);
+			utilities[i] = agent.getUtility();
+			strategiesBackup[i] = agent.getStrategy().copy();
+		}
+
+		int[] parents = select(population, utilities);
+		for (int i = 0; i < n; i++) {
+			if (parents[i] == KEEP)
+				continue;
+			Agent agent = population.get(i);
+			agent.getStrategy().copyStrategy(strategiesBackup[parents[i]]);
+			agent.mutate();
+		}
+	}
+
+	/**
+	 * @return for every agent index of its parent, or KEEP
+	 */
+	protected abstract int[] select(ArrayList<Agent> population,
+			double[] utilities);
+
+	/**
+	 * @return indices of agents, best utility first, stable
+	 */
+	protected static Integer[] rank(final double[] utilities) {
+		Integer[] order = new Integer[utilities.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(utilities[o2], utilities[o1]);
+			}
+		});
+		return order;
+	}
+
+}
@@ -0,0 +1,67 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import collaboration.Agent;
+import collaboration.ParallelSteps;
+import collaboration.SimulationAdvancedParameters;
+
+/***
+ * Tournament selection - parent of every agent is the best of
+ * tournamentSize agents drawn with replacement. Tournaments are independent,
+ * when agents have their own random streams they are held in parallel, an
+ * agent draws the contestants from its own stream so results don't depend
+ * on threads.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class TournamentSelection extends SelectionOperator {
+
+	private static final int CHUNK = 1024;
+
+	@Override
+	protected int[] select(final ArrayList<Agent> population,
+			final double[] utilities) {
+		final int[] parents = new int[population.size()];
+		if (RandomStreams.isSplit() && ParallelSteps.isEnabled()
+				&& population.size() > CHUNK) {
+			List<Runnable> jobs = new ArrayList<Runnable>();
+			for (int from = 0; from < parents.length; from += CHUNK) {
+				final int start = from;
+				final int end = Math.min(from + CHUNK, parents.length);
+				jobs.add(new Runnable() {
+					@Override
+					public void run() {
+						for (int i = start; i < end; i++) {
+							parents[i] = tournament(population.get(i),
+									utilities);
+						}
+					}
+				});
+			}
+			ParallelSteps.invokeAll(jobs);
+		} else {
+			for (int i = 0; i < parents.length; i++) {
+				parents[i] = tournament(population.get(i), utilities);
+			}
+		}
+		return parents;
+	}
+
+	private int tournament(Agent agent, double[] utilities) {
+		int best = RandomStreams.nextIntFromTo(agent, 0,
+				utilities.length - 1);
+		for (int k = 1; k < SimulationAdvancedParameters.tournamentSize; k++) {
+			int contestant = RandomStreams.nextIntFromTo(agent, 0,
+					utilities.length - 1);
+			if (utilities[contestant] > utilities[best]) {
+				best = contestant;
+			}
+		}
+		return best;
+	}
+
+}
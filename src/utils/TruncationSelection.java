@@ -0,0 +1,40 @@
+package utils;
+
+import java.util.ArrayList;
+
+import collaboration.Agent;
+import collaboration.SimulationAdvancedParameters;
+
+/***
+ * Truncation selection with elitism - the best elitismCount agents keep
+ * their strategies untouched, everybody else takes the strategy of an agent
+ * drawn from the best truncationRatio of the population.
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class TruncationSelection extends SelectionOperator {
+
+	@Override
+	protected int[] select(ArrayList<Agent> population, double[] utilities) {
+		int n = utilities.length;
+		Integer[] byRank = rank(utilities);
+		int elite = Math.min(SimulationAdvancedParameters.elitismCount, n);
+		int survivors = Math.max(1,
+				(int) (n * SimulationAdvancedParameters.truncationRatio));
+
+		int[] parents = new int[n];
+		for (int i = 0; i < n; i++) {
+			int agent = byRank[i];
+			if (i < elite) {
+				parents[agent] = KEEP;
+			} else {
+				parents[agent] = byRank[RandomStreams.nextIntFromTo(
+						population.get(agent), 0, survivors - 1)];
+			}
+		}
+		return parents;
+	}
+
+}
@@ -0,0 +1,22 @@
+package utils;
+
+import java.util.ArrayList;
+
+import collaboration.Agent;
+import collaboration.Agents;
+
+/***
+ * Stochastic Universal Sampling, the original evolution of the simulation
+ * 
+ * @author Oskar Jarczyk
+ * @since 2.0
+ * @version 3.0
+ */
+public class UniversalSampling implements EvolutionOperator {
+
+	@Override
+	public void evolve(ArrayList<Agent> population) {
+		Agents.stochasticSampling(population);
+	}
+
+}